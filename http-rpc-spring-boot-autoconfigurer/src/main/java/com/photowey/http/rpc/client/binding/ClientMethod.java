@@ -15,14 +15,26 @@
  */
 package com.photowey.http.rpc.client.binding;
 
+import com.photowey.http.rpc.client.cluster.health.FailureClassifier;
+import com.photowey.http.rpc.client.cluster.health.ServiceHealth;
+import com.photowey.http.rpc.client.cluster.strategy.ClusterStrategySelector;
 import com.photowey.http.rpc.client.config.HRpcConfiguration;
+import com.photowey.http.rpc.client.interceptor.RequestInterceptor;
+import com.photowey.http.rpc.client.properties.ServiceInfo;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.client.request.executor.ReactiveRequestExecutor;
 import com.photowey.http.rpc.client.request.executor.RequestExecutor;
+import com.photowey.http.rpc.core.enums.ExecutorEnum;
+import com.photowey.http.rpc.core.enums.HostTypeEnum;
+import com.photowey.http.rpc.core.exception.CircuitBreakerOpenException;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.model.RemoteInfo;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ClientMethod
@@ -33,22 +45,170 @@ import java.lang.reflect.Method;
  */
 public class ClientMethod {
 
-    private MethodSignature method;
-    private RequestCommand command;
+    private final MethodSignature method;
+    private final RequestCommand command;
 
     HRpcConfiguration hrpcConfiguration;
-    private RequestExecutor requestExecutor;
+    /**
+     * resolved lazily on the first invocation,
+     * the client method is prepared when the proxy is created, the executor beans may not registered yet
+     */
+    private volatile RequestExecutor requestExecutor;
+    private volatile ReactiveRequestExecutor reactiveRequestExecutor;
+
+    /**
+     * the service routes, only for the {@link HostTypeEnum#DYNAMIC} host
+     *
+     * @since 1.1.0
+     */
+    private ServiceInfo serviceInfo;
+
+    /**
+     * the interceptor pipeline of the method
+     *
+     * @since 1.1.0
+     */
+    private final RequestInterceptor[] interceptors;
+    private volatile ClusterStrategySelector clusterStrategySelector;
+    private volatile ServiceHealth serviceHealth;
 
     public ClientMethod(Method target, Annotation httpAnnotation, HRpcConfiguration hrpcConfiguration) {
         this.hrpcConfiguration = hrpcConfiguration;
-        this.requestExecutor = this.hrpcConfiguration.getRequestExecutor();
         RemoteInfo remoteInfo = this.hrpcConfiguration.parseHttpAnnotation(target, httpAnnotation);
         this.command = new RequestCommand(target, remoteInfo);
-        this.method = new MethodSignature(target, this.command);
+        // parse the parameters once, the signature is shared by all the invocations
+        this.method = this.hrpcConfiguration.handleAll(new MethodSignature(target, this.command), target)
+                .compile(this.hrpcConfiguration.getJsonCodec());
+        this.interceptors = this.hrpcConfiguration.determineInterceptors(this.command.getService(), target);
+        if (HostTypeEnum.DYNAMIC.equals(this.command.getHostType())) {
+            this.serviceInfo = this.hrpcConfiguration.determineServiceInfo(this.command.getService());
+        }
+    }
+
+    public Object execute(ClientRequest request) throws IOException {
+        if (null == this.serviceInfo) {
+            request.setUrl(this.command.getRemoteAddress() + request.getUrl());
+            return this.doExecute(request);
+        }
+
+        ServiceRoute route = this.determineRoute(request.getHashKey());
+        request.setUrl(this.toRemoteAddress(route) + request.getUrl());
+        request.setRoute(route);
+        if (this.method.isReactive()) {
+            // the reactive executor begin the call on subscribe, the publisher is lazy
+            return this.doExecute(request);
+        }
+
+        long start;
+        try {
+            start = this.beginCall(request);
+        } catch (CircuitBreakerOpenException e) {
+            if (this.method.isAsync()) {
+                // fail the future, not the caller thread
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+            throw e;
+        }
+        Object response;
+        try {
+            response = this.doExecute(request);
+        } catch (Throwable e) {
+            this.endCall(request, start, e);
+            throw e;
+        }
+        if (this.method.isAsync()) {
+            ((CompletableFuture<?>) response).whenComplete((value, cause) -> this.endCall(request, start, cause));
+        } else {
+            this.endCall(request, start, null);
+        }
+
+        return response;
+    }
+
+    /**
+     * begin a call of the selected route, acquire the permission of the circuit breaker, and update the in-flight calls
+     *
+     * @param request the per-call request state, the route is not null
+     * @return the start time in nanos
+     * @throws CircuitBreakerOpenException if the circuit breaker of the route is open
+     * @since 1.1.0
+     */
+    public long beginCall(ClientRequest request) throws CircuitBreakerOpenException {
+        ServiceRoute route = request.getRoute();
+        request.setPermit(this.determineServiceHealth().acquirePermission(route));
+        return route.stats().begin();
     }
 
-    public Object execute() throws IOException {
-        return this.requestExecutor.execute(this);
+    /**
+     * end a call of the selected route, update the route stats, the route health and the circuit breaker
+     * <p>
+     * only the route failures classified by the {@link FailureClassifier} count as failed,
+     * the 4xx, the business and the serialization errors do not
+     *
+     * @param request the per-call request state, the route is not null
+     * @param start   the start time of the {@link #beginCall(ClientRequest)}
+     * @param cause   the failure of the call, null if the call completed normally
+     * @since 1.1.0
+     */
+    public void endCall(ClientRequest request, long start, Throwable cause) {
+        boolean success = !FailureClassifier.isRouteFailure(cause);
+        ServiceRoute route = request.getRoute();
+        route.stats().end(start, success);
+        this.determineServiceHealth().record(route, request.getPermit(), System.nanoTime() - start, success);
+    }
+
+    private Object doExecute(ClientRequest request) throws IOException {
+        if (this.method.isReactive()) {
+            // the Mono<T> or Flux<T>
+            return this.getReactiveRequestExecutor().executeReactive(this, request);
+        }
+        if (this.method.isAsync()) {
+            // the CompletableFuture<T> or CompletionStage<T>
+            return this.getRequestExecutor().executeAsync(this, request);
+        }
+
+        return this.getRequestExecutor().execute(this, request);
+    }
+
+    /**
+     * determine the remote address per invocation
+     * http://localhost:8080/
+     * <p>
+     * the {@link HostTypeEnum#DYNAMIC} host is selected by the cluster strategy from the service routes,
+     * so the traffic spread across the routes
+     *
+     * @return the remote address
+     * @since 1.1.0
+     */
+    public String determineRemoteAddress() {
+        return this.determineRemoteAddress(null);
+    }
+
+    /**
+     * determine the remote address per invocation by the hash key of the {@literal @}HashKey parameter
+     *
+     * @param hashKey the hash key, maybe null
+     * @return the remote address
+     * @since 1.1.0
+     */
+    public String determineRemoteAddress(String hashKey) {
+        if (null == this.serviceInfo) {
+            return this.command.getRemoteAddress();
+        }
+
+        return this.toRemoteAddress(this.determineRoute(hashKey));
+    }
+
+    private ServiceRoute determineRoute(String hashKey) {
+        // only the healthy routes are selectable
+        List<ServiceRoute> routes = this.determineServiceHealth().routes();
+        return this.determineClusterStrategySelector().select(this.command.getService(), routes, hashKey);
+    }
+
+    private String toRemoteAddress(ServiceRoute route) {
+        return this.command.getProtocol() + "://" + route.toHost() + "/";
     }
 
     public MethodSignature getMethod() {
@@ -59,11 +219,68 @@ public class ClientMethod {
         return command;
     }
 
+    public RequestInterceptor[] getInterceptors() {
+        return interceptors;
+    }
+
     public HRpcConfiguration getHRpcConfiguration() {
         return hrpcConfiguration;
     }
 
     public RequestExecutor getRequestExecutor() {
-        return requestExecutor;
+        RequestExecutor executor = this.requestExecutor;
+        if (null == executor) {
+            executor = this.hrpcConfiguration.getRequestExecutor();
+            if (null == executor) {
+                throw new HRpcException("not found the request executor:[{}]", this.hrpcConfiguration.getHRpcClientProperties().getExecutorType());
+            }
+            this.requestExecutor = executor;
+        }
+
+        return executor;
+    }
+
+    /**
+     * the configured executor if it is reactive, otherwise the {@link ExecutorEnum#WEB_CLIENT}
+     *
+     * @return {@link ReactiveRequestExecutor}
+     * @since 1.1.0
+     */
+    public ReactiveRequestExecutor getReactiveRequestExecutor() {
+        ReactiveRequestExecutor executor = this.reactiveRequestExecutor;
+        if (null == executor) {
+            RequestExecutor candidate = this.hrpcConfiguration.getRequestExecutor();
+            if (!(candidate instanceof ReactiveRequestExecutor)) {
+                candidate = this.hrpcConfiguration.getRequestExecutor(ExecutorEnum.WEB_CLIENT.name());
+            }
+            if (null == candidate) {
+                throw new HRpcException("the reactive method:[{}] requires the request executor:[{}], please add the spring-webflux",
+                        this.command.getMethodName(), ExecutorEnum.WEB_CLIENT);
+            }
+            executor = (ReactiveRequestExecutor) candidate;
+            this.reactiveRequestExecutor = executor;
+        }
+
+        return executor;
+    }
+
+    private ServiceHealth determineServiceHealth() {
+        ServiceHealth health = this.serviceHealth;
+        if (null == health) {
+            health = this.hrpcConfiguration.getRouteHealthManager().determineServiceHealth(this.serviceInfo);
+            this.serviceHealth = health;
+        }
+
+        return health;
+    }
+
+    private ClusterStrategySelector determineClusterStrategySelector() {
+        ClusterStrategySelector selector = this.clusterStrategySelector;
+        if (null == selector) {
+            selector = this.hrpcConfiguration.determineClusterStrategySelector();
+            this.clusterStrategySelector = selector;
+        }
+
+        return selector;
     }
 }
\ No newline at end of file
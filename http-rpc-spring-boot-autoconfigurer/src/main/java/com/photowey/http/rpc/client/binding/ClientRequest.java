@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.binding;
+
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ClientRequest
+ * <p>
+ * the per-call request state, such as the rendered url, the header values and the request body
+ * created by {@link MethodSignature#newRequest()} for each invocation, never shared across threads
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class ClientRequest {
+
+    private String url;
+
+    private final Map<String, String> headerValues = new HashMap<>();
+
+    private Object requestBody;
+
+    /**
+     * the hash key of the {@literal @}HashKey parameter, used to select the service route by the HASH cluster strategy
+     */
+    private String hashKey;
+
+    /**
+     * the selected service route, null if the host is static
+     */
+    private ServiceRoute route;
+
+    /**
+     * the permit of the circuit breaker of the route, the outcome is recorded under the state it was permitted
+     */
+    private long permit;
+
+    public ClientRequest(String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Map<String, String> getHeaderValues() {
+        return headerValues;
+    }
+
+    public Object getRequestBody() {
+        return requestBody;
+    }
+
+    public void setRequestBody(Object requestBody) {
+        this.requestBody = requestBody;
+    }
+
+    public String getHashKey() {
+        return hashKey;
+    }
+
+    public void setHashKey(String hashKey) {
+        this.hashKey = hashKey;
+    }
+
+    public ServiceRoute getRoute() {
+        return route;
+    }
+
+    public void setRoute(ServiceRoute route) {
+        this.route = route;
+    }
+
+    public long getPermit() {
+        return permit;
+    }
+
+    public void setPermit(long permit) {
+        this.permit = permit;
+    }
+}
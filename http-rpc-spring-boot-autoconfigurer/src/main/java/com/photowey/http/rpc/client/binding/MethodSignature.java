@@ -15,11 +15,21 @@
  */
 package com.photowey.http.rpc.client.binding;
 
-import com.photowey.http.rpc.core.util.HRpcUtils;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.codec.PayloadSizeHint;
+import com.photowey.http.rpc.core.exception.HRpcException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * RequestCommand
@@ -46,7 +56,11 @@ import java.util.*;
  */
 public class MethodSignature {
 
+    private static final String REACTOR_MONO = "reactor.core.publisher.Mono";
+    private static final String REACTOR_FLUX = "reactor.core.publisher.Flux";
+
     private final Class<?> returnType;
+    private final Type genericReturnType;
 
     private Map<String, Integer> queries = new TreeMap<>();
     private Map<String, String> aliasMap = new TreeMap<>();
@@ -57,30 +71,227 @@ public class MethodSignature {
     private Map<String, Integer> noAlisaPathIndex = new HashMap<>();
 
     private Map<String, Integer> headers = new HashMap<>();
-    private Map<String, String> headerValues = new HashMap<>();
     private Map<String, Integer> noAlisaHeaderIndex = new HashMap<>();
 
     private Class<?> requestBodyType;
-    private Object requestBody;
     private Integer bodyIndex;
+    private Integer hashKeyIndex;
+
+    /**
+     * the relative url template, without the remote address
+     * the remote address is determined per invocation
+     *
+     * @since 1.1.0
+     */
+    private String template;
+
+    /**
+     * the compiled url template
+     *
+     * @since 1.1.0
+     */
+    private UrlTemplate urlTemplate;
+
+    /**
+     * the compiled {@literal @}RequestHeader and {@literal @}RequestBody binders
+     *
+     * @since 1.1.0
+     */
+    private ParameterBinder[] binders;
+
+    /**
+     * the {@literal @}RequestBody writer and the response reader, resolved once per declared type
+     *
+     * @since 1.1.0
+     */
+    private ObjectWriter bodyWriter;
+    private ObjectReader responseReader;
 
-    private String url;
+    /**
+     * the size of the last {@literal @}RequestBody payload, decides whether the next one is buffered or streamed
+     *
+     * @since 1.1.0
+     */
+    private final PayloadSizeHint bodySizeHint = new PayloadSizeHint();
 
-    private String typeName;
+    /**
+     * the full generic response body type, such as: List<Foo>, Map<String, Foo>,
+     * unwrapped from the ResponseEntity<T> and Optional<T>
+     *
+     * @since 1.1.0
+     */
+    private JavaType responseType;
+    private boolean responseEntity;
+    private boolean optional;
+
+    /**
+     * the method returns the CompletableFuture<T> or CompletionStage<T>, executed with the non-blocking I/O
+     *
+     * @since 1.1.0
+     */
+    private final boolean async;
+
+    /**
+     * the method returns the Reactor Mono<T> or Flux<T>, compared by name, the Reactor is optional
+     *
+     * @since 1.1.0
+     */
+    private final boolean mono;
+    private final boolean flux;
+
+    /**
+     * the signature is shared by all the invocations of the method,
+     * so it is read-only once compiled, the per-call state lives in the {@link ClientRequest}
+     *
+     * @since 1.1.0
+     */
+    private volatile boolean compiled;
 
     public MethodSignature(Method method, RequestCommand command) {
         this.returnType = method.getReturnType();
-        Type genericReturnType = method.getGenericReturnType();
-        if (null != genericReturnType) {
-            // handle ResponseEntity
-            // org.springframework.request.ResponseEntity<com.photowey.domain.HealthDTO>
-            // com.photowey.domain.HealthDTO
-            String typeName = genericReturnType.getTypeName();
-            if (typeName.matches(".*<.*>$")) {
-                this.typeName = HRpcUtils.extractBodyClazz(typeName);
+        this.genericReturnType = method.getGenericReturnType();
+        this.async = CompletableFuture.class.equals(this.returnType) || CompletionStage.class.equals(this.returnType);
+        this.mono = REACTOR_MONO.equals(this.returnType.getName());
+        this.flux = REACTOR_FLUX.equals(this.returnType.getName());
+        this.template = command.getAppPath();
+    }
+
+    /**
+     * freeze the signature after the parameter processors have done
+     *
+     * @param jsonCodec {@link JsonCodec}
+     * @return {@link MethodSignature}
+     * @since 1.1.0
+     */
+    public MethodSignature compile(JsonCodec jsonCodec) {
+        this.queries = Collections.unmodifiableMap(this.queries);
+        this.aliasMap = Collections.unmodifiableMap(this.aliasMap);
+        this.queryMapIndex = Collections.unmodifiableList(this.queryMapIndex);
+        this.noAliasParamIndex = Collections.unmodifiableMap(this.noAliasParamIndex);
+        this.pathVariable = Collections.unmodifiableMap(this.pathVariable);
+        this.noAlisaPathIndex = Collections.unmodifiableMap(this.noAlisaPathIndex);
+        this.headers = Collections.unmodifiableMap(this.headers);
+        this.noAlisaHeaderIndex = Collections.unmodifiableMap(this.noAlisaHeaderIndex);
+        this.urlTemplate = UrlTemplate.compile(this);
+        this.binders = this.compileBinders();
+        if (null != this.bodyIndex) {
+            this.bodyWriter = jsonCodec.writerFor(this.requestBodyType);
+        }
+        this.responseReader = this.compileResponseReader(jsonCodec);
+        this.compiled = true;
+
+        return this;
+    }
+
+    private ObjectReader compileResponseReader(JsonCodec jsonCodec) {
+        if (void.class.equals(this.returnType) || Void.class.equals(this.returnType)) {
+            return null;
+        }
+        JavaType javaType = jsonCodec.constructType(this.genericReturnType);
+        if (this.async || this.isReactive()) {
+            // CompletableFuture<Foo> -> Foo, Mono<Foo> -> Foo, Flux<Foo> -> Foo
+            javaType = this.unwrap(javaType);
+            if (javaType.hasRawClass(Void.class)) {
+                return null;
             }
         }
-        this.url = command.getUrl();
+        if (javaType.hasRawClass(ResponseEntity.class)) {
+            // ResponseEntity<List<Foo>> -> List<Foo>
+            this.responseEntity = true;
+            javaType = this.unwrap(javaType);
+        }
+        if (javaType.hasRawClass(Optional.class)) {
+            // Optional<Foo> -> Foo
+            this.optional = true;
+            javaType = this.unwrap(javaType);
+        }
+        this.responseType = javaType;
+
+        return jsonCodec.readerFor(javaType);
+    }
+
+    private JavaType unwrap(JavaType javaType) {
+        if (javaType.containedTypeCount() > 0) {
+            return javaType.containedType(0);
+        }
+
+        return TypeFactory.unknownType();
+    }
+
+    /**
+     * wrap the decoded body as the declared return type, such as: ResponseEntity<T> and Optional<T>
+     *
+     * @param body   the decoded body
+     * @param status the http status
+     * @return the response
+     * @since 1.1.0
+     */
+    public Object toResponse(Object body, int status) {
+        Object response = this.optional ? Optional.ofNullable(body) : body;
+        if (this.responseEntity) {
+            // #issue: java.lang.IllegalArgumentException: HttpStatus must not be null
+            return new ResponseEntity<>(response, HttpStatus.valueOf(status));
+        }
+
+        return response;
+    }
+
+    private ParameterBinder[] compileBinders() {
+        List<ParameterBinder> binders = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : this.headers.entrySet()) {
+            binders.add(ParameterBinder.header(entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, Integer> entry : this.noAlisaHeaderIndex.entrySet()) {
+            binders.add(ParameterBinder.header(entry.getKey(), entry.getValue()));
+        }
+        if (null != this.bodyIndex) {
+            binders.add(ParameterBinder.body(this.bodyIndex));
+        }
+        if (null != this.hashKeyIndex) {
+            binders.add(ParameterBinder.hashKey(this.hashKeyIndex));
+        }
+
+        return binders.toArray(new ParameterBinder[0]);
+    }
+
+    /**
+     * create the per-call request state
+     *
+     * @return {@link ClientRequest}
+     * @since 1.1.0
+     */
+    public ClientRequest newRequest() {
+        return new ClientRequest(this.template);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public boolean isMono() {
+        return mono;
+    }
+
+    public boolean isFlux() {
+        return flux;
+    }
+
+    public boolean isReactive() {
+        return this.mono || this.flux;
+    }
+
+    /**
+     * the response body is ignored, such as: void, Void and CompletableFuture<Void>
+     *
+     * @return {@link Boolean}
+     * @since 1.1.0
+     */
+    public boolean isVoidResponse() {
+        return null == this.responseReader;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
     }
 
     public Class<?> getReturnType() {
@@ -115,10 +326,6 @@ public class MethodSignature {
         return headers;
     }
 
-    public Map<String, String> getHeaderValues() {
-        return headerValues;
-    }
-
     public Map<String, Integer> getNoAlisaHeaderIndex() {
         return noAlisaHeaderIndex;
     }
@@ -127,47 +334,69 @@ public class MethodSignature {
         return requestBodyType;
     }
 
-    public Object getRequestBody() {
-        return requestBody;
-    }
-
     public Integer getBodyIndex() {
         return bodyIndex;
     }
 
-    public String getUrl() {
-        return url;
+    public Integer getHashKeyIndex() {
+        return hashKeyIndex;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public Type getGenericReturnType() {
+        return genericReturnType;
+    }
+
+    public JavaType getResponseType() {
+        return responseType;
+    }
+
+    public UrlTemplate getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    public ParameterBinder[] getBinders() {
+        return binders;
+    }
+
+    public ObjectWriter getBodyWriter() {
+        return bodyWriter;
     }
 
-    public String getTypeName() {
-        return typeName;
+    public PayloadSizeHint getBodySizeHint() {
+        return bodySizeHint;
     }
 
-    public void setUrl(String url) {
-        this.url = url;
+    public ObjectReader getResponseReader() {
+        return responseReader;
     }
 
-    public void setRequestBody(Object requestBody) {
-        this.requestBody = requestBody;
+    public void setTemplate(String template) {
+        this.checkCompiled();
+        this.template = template;
     }
 
     public void setRequestBodyType(Class<?> requestBodyType) {
+        this.checkCompiled();
         this.requestBodyType = requestBodyType;
     }
 
     public void setBodyIndex(Integer bodyIndex) {
+        this.checkCompiled();
         this.bodyIndex = bodyIndex;
     }
 
-    public void clear() {
-        this.queries.clear();
-        this.aliasMap.clear();
-        this.noAliasParamIndex.clear();
-        this.pathVariable.clear();
-        this.noAlisaPathIndex.clear();
-        this.headers.clear();
-        this.headerValues.clear();
-        this.queryMapIndex.clear();
-        this.noAlisaHeaderIndex.clear();
+    public void setHashKeyIndex(Integer hashKeyIndex) {
+        this.checkCompiled();
+        this.hashKeyIndex = hashKeyIndex;
+    }
+
+    private void checkCompiled() {
+        if (this.compiled) {
+            throw new HRpcException("the method signature:[{}] has been compiled, it's read-only", this.template);
+        }
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.binding;
+
+/**
+ * ParameterBinder
+ * <p>
+ * bind one invocation argument into the per-call {@link ClientRequest},
+ * compiled once per method by {@link MethodSignature#compile(com.photowey.http.rpc.client.codec.JsonCodec)}, the hot path only index into the args
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    /**
+     * bind the argument
+     *
+     * @param request the per-call request state
+     * @param args    the invocation arguments
+     */
+    void bind(ClientRequest request, Object[] args);
+
+    // =================================================================================================================
+
+    /**
+     * {@literal @}RequestHeader binder
+     *
+     * @param name  the header name
+     * @param index the argument index
+     * @return {@link ParameterBinder}
+     */
+    static ParameterBinder header(String name, int index) {
+        return (request, args) -> request.getHeaderValues().put(name, String.valueOf(args[index]));
+    }
+
+    /**
+     * {@literal @}RequestBody binder
+     *
+     * @param index the argument index
+     * @return {@link ParameterBinder}
+     */
+    static ParameterBinder body(int index) {
+        return (request, args) -> request.setRequestBody(args[index]);
+    }
+
+    /**
+     * {@literal @}HashKey binder
+     *
+     * @param index the argument index
+     * @return {@link ParameterBinder}
+     */
+    static ParameterBinder hashKey(int index) {
+        return (request, args) -> request.setHashKey(null == args[index] ? null : String.valueOf(args[index]));
+    }
+}
@@ -15,9 +15,12 @@
  */
 package com.photowey.http.rpc.client.binding;
 
+import com.photowey.http.rpc.client.annotation.HRpcClient;
 import com.photowey.http.rpc.core.annotation.*;
+import com.photowey.http.rpc.core.enums.HostTypeEnum;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.model.RemoteInfo;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.lang.annotation.Annotation;
@@ -35,6 +38,25 @@ public class RequestCommand {
      * the method name
      */
     private final String methodName;
+    /**
+     * the target service, {@link HRpcClient#value()}
+     *
+     * @since 1.1.0
+     */
+    private final String service;
+    /**
+     * the request protocol
+     * https || http
+     *
+     * @since 1.1.0
+     */
+    private final String protocol;
+    /**
+     * the host type
+     *
+     * @since 1.1.0
+     */
+    private final HostTypeEnum hostType;
     /**
      * http://localhost:8080/api/v1
      */
@@ -61,6 +83,10 @@ public class RequestCommand {
         this.remoteAddress = remoteInfo.buildURI();
         Class<?> targetProxy = target.getDeclaringClass();
         this.methodName = targetProxy.getName() + "." + target.getName();
+        HRpcClient hrpcClient = AnnotationUtils.findAnnotation(targetProxy, HRpcClient.class);
+        this.service = null == hrpcClient ? targetProxy.getName() : hrpcClient.value();
+        this.protocol = remoteInfo.getProtocol();
+        this.hostType = remoteInfo.getHostType();
         Annotation[] declaredAnnotations = target.getDeclaredAnnotations();
         this.appPath = remoteInfo.getUri();
         boolean findSucceed = true;
@@ -99,6 +125,18 @@ public class RequestCommand {
         return methodName;
     }
 
+    public String getService() {
+        return service;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public HostTypeEnum getHostType() {
+        return hostType;
+    }
+
     public String getRemoteAddress() {
         return remoteAddress;
     }
@@ -0,0 +1,257 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.binding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UrlTemplate
+ * <p>
+ * the relative url template compiled once from the http annotation's uri and the {@literal @}RequestParam placeholders,
+ * such as: api/v1/user/{id}?uname={uname}
+ * <p>
+ * the template is parsed into the literal segments and the argument slots,
+ * and rendered into a single pre-sized {@link StringBuilder} per call, the argument values are percent-encoded
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public final class UrlTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final boolean[] PATH_SAFE = new boolean[128];
+    private static final boolean[] QUERY_SAFE = new boolean[128];
+
+    static {
+        String unreserved = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~";
+        // pchar = unreserved / sub-delims / ":" / "@"
+        String pathSafe = unreserved + "!$&'()*+,;=:@";
+        // the query value, without the separators "&", "=" and "+"
+        String querySafe = unreserved + "!$'()*,;:@/?";
+        for (char c : pathSafe.toCharArray()) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c : querySafe.toCharArray()) {
+            QUERY_SAFE[c] = true;
+        }
+    }
+
+    /**
+     * literals.length == slots.length + 1
+     */
+    private final String[] literals;
+    private final int[] slots;
+    private final boolean[] querySlots;
+
+    /**
+     * the {@literal @}RequestParam parameters without alias, appended as: &name=value
+     */
+    private final String[] appendNames;
+    private final int[] appendIndexes;
+
+    /**
+     * the {@literal @}RequestParam Map parameters
+     */
+    private final int[] queryMapIndexes;
+
+    private final boolean hasQuery;
+    private final int literalLength;
+
+    private UrlTemplate(String[] literals, int[] slots, boolean[] querySlots,
+                        String[] appendNames, int[] appendIndexes, int[] queryMapIndexes, boolean hasQuery) {
+        this.literals = literals;
+        this.slots = slots;
+        this.querySlots = querySlots;
+        this.appendNames = appendNames;
+        this.appendIndexes = appendIndexes;
+        this.queryMapIndexes = queryMapIndexes;
+        this.hasQuery = hasQuery;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    // =================================================================================================================
+
+    /**
+     * compile the url template of the method signature
+     *
+     * @param methodSignature {@link MethodSignature}
+     * @return {@link UrlTemplate}
+     */
+    public static UrlTemplate compile(MethodSignature methodSignature) {
+        String template = methodSignature.getTemplate();
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> querySlots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        boolean inQuery = false;
+        int i = 0;
+        int length = template.length();
+        while (i < length) {
+            char c = template.charAt(i);
+            if ('{' == c) {
+                int end = template.indexOf('}', i);
+                if (end > i) {
+                    Integer index = determineSlot(methodSignature, template.substring(i + 1, end));
+                    if (null != index) {
+                        literals.add(literal.toString());
+                        literal.setLength(0);
+                        slots.add(index);
+                        querySlots.add(inQuery);
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            } else if ('?' == c) {
+                inQuery = true;
+            }
+            // keep the unresolved placeholder as it is
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+
+        Map<String, Integer> noAliasParamIndex = methodSignature.getNoAliasParamIndex();
+        String[] appendNames = new String[noAliasParamIndex.size()];
+        int[] appendIndexes = new int[noAliasParamIndex.size()];
+        int n = 0;
+        for (Map.Entry<String, Integer> entry : noAliasParamIndex.entrySet()) {
+            appendNames[n] = entry.getKey();
+            appendIndexes[n++] = entry.getValue();
+        }
+
+        List<Integer> queryMapIndex = methodSignature.getQueryMapIndex();
+        int[] queryMapIndexes = new int[queryMapIndex.size()];
+        for (int k = 0; k < queryMapIndexes.length; k++) {
+            queryMapIndexes[k] = queryMapIndex.get(k);
+        }
+
+        int[] slotArray = new int[slots.size()];
+        boolean[] querySlotArray = new boolean[slots.size()];
+        for (int k = 0; k < slotArray.length; k++) {
+            slotArray[k] = slots.get(k);
+            querySlotArray[k] = querySlots.get(k);
+        }
+
+        return new UrlTemplate(literals.toArray(new String[0]), slotArray, querySlotArray,
+                appendNames, appendIndexes, queryMapIndexes, inQuery);
+    }
+
+    private static Integer determineSlot(MethodSignature methodSignature, String name) {
+        Integer index = methodSignature.getPathVariable().get(name);
+        if (null == index) {
+            index = methodSignature.getNoAlisaPathIndex().get(name);
+        }
+        if (null == index) {
+            index = methodSignature.getQueries().get(name);
+        }
+
+        return index;
+    }
+
+    // =================================================================================================================
+
+    /**
+     * render the relative url with the invocation arguments
+     *
+     * @param args the invocation arguments
+     * @return the relative url
+     */
+    public String render(Object[] args) {
+        StringBuilder builder = new StringBuilder(this.literalLength + (this.slots.length + this.appendIndexes.length) * 16);
+        builder.append(this.literals[0]);
+        for (int i = 0; i < this.slots.length; i++) {
+            encode(builder, String.valueOf(args[this.slots[i]]), this.querySlots[i]);
+            builder.append(this.literals[i + 1]);
+        }
+
+        boolean query = this.hasQuery;
+        for (int i = 0; i < this.appendIndexes.length; i++) {
+            query = appendQuery(builder, this.appendNames[i], args[this.appendIndexes[i]], query);
+        }
+        for (int index : this.queryMapIndexes) {
+            Map<?, ?> params = (Map<?, ?>) args[index];
+            if (null == params) {
+                continue;
+            }
+            for (Map.Entry<?, ?> entry : params.entrySet()) {
+                query = appendQuery(builder, String.valueOf(entry.getKey()), entry.getValue(), query);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * append the query param: ?name=value or &name=value
+     *
+     * @param builder  the url builder
+     * @param name     the query name
+     * @param value    the query value
+     * @param hasQuery has the url contains the "?"
+     * @return true, the url contains the "?" now
+     */
+    public static boolean appendQuery(StringBuilder builder, String name, Object value, boolean hasQuery) {
+        builder.append(hasQuery ? '&' : '?');
+        encode(builder, name, true);
+        builder.append('=');
+        encode(builder, String.valueOf(value), true);
+
+        return true;
+    }
+
+    /**
+     * percent-encode the value into the builder with UTF-8
+     *
+     * @param builder the url builder
+     * @param value   the raw value
+     * @param query   true: encode as the query value, false: encode as the path segment
+     */
+    public static void encode(StringBuilder builder, String value, boolean query) {
+        boolean[] safe = query ? QUERY_SAFE : PATH_SAFE;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (safe[c]) {
+                    builder.append(c);
+                } else {
+                    appendEscaped(builder, c);
+                }
+                continue;
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < length ? i + 2 : i + 1;
+            byte[] bytes = value.substring(i, end).getBytes(StandardCharsets.UTF_8);
+            for (byte b : bytes) {
+                appendEscaped(builder, b & 0xFF);
+            }
+            i = end - 1;
+        }
+    }
+
+    private static void appendEscaped(StringBuilder builder, int b) {
+        builder.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.photowey.http.rpc.client.properties.CircuitBreakerProperties;
+import com.photowey.http.rpc.core.enums.CircuitBreakerStateEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CircuitBreaker
+ * <p>
+ * the circuit breaker of a service route, driven by the failure rate and the slow call rate of a count based sliding window
+ * <p>
+ * CLOSED -> OPEN: the rates exceed the thresholds in the sliding window
+ * OPEN -> HALF_OPEN: the wait duration elapsed, checked by the next call
+ * HALF_OPEN -> CLOSED | OPEN: decided by the rates of the permitted trial calls
+ * <p>
+ * the state machine is lock free, a permitted call in the CLOSED state is a volatile read,
+ * and a success outcome only write the ring buffer slot
+ * <p>
+ * the state and its generation are packed in a single word, the permission returns the word as the permit,
+ * so an outcome is recorded only under the state it was permitted, e.g. the late outcome of a call
+ * permitted in the CLOSED state is dropped in the HALF_OPEN state, not taken as a trial call
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see CircuitBreakerStateEnum
+ * @since 1.1.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 1 << 1;
+    private static final int SLOW = 1 << 2;
+
+    /**
+     * the permit of a rejected call
+     */
+    public static final long NOT_PERMITTED = -1L;
+
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1L;
+    private static final CircuitBreakerStateEnum[] STATES = CircuitBreakerStateEnum.values();
+
+    private final String name;
+
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long waitNanos;
+    private final int permittedCallsInHalfOpenState;
+
+    /**
+     * notified when the route become selectable or not, after the state transitions and the last trial permit
+     */
+    private final Runnable listener;
+
+    /**
+     * the generation shifted left by the {@link #STATE_BITS}, or the ordinal of the state
+     */
+    private final AtomicLong state = new AtomicLong(pack(0L, CircuitBreakerStateEnum.CLOSED));
+    private volatile long openedAt;
+
+    /**
+     * the sliding window of the CLOSED state, the ring buffer of the outcomes, and the aggregated counters
+     */
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    /**
+     * the trial calls of the HALF_OPEN state
+     */
+    private final AtomicInteger permits = new AtomicInteger();
+    private final AtomicInteger trialCalls = new AtomicInteger();
+    private final AtomicInteger trialFailures = new AtomicInteger();
+    private final AtomicInteger trialSlowCalls = new AtomicInteger();
+
+    public CircuitBreaker(String name, CircuitBreakerProperties circuitBreaker) {
+        this(name, circuitBreaker, null);
+    }
+
+    public CircuitBreaker(String name, CircuitBreakerProperties circuitBreaker, Runnable listener) {
+        this.name = name;
+        this.listener = listener;
+        this.slidingWindowSize = Math.max(1, circuitBreaker.getSlidingWindowSize());
+        this.minimumCalls = Math.max(1, Math.min(circuitBreaker.getMinimumCalls(), this.slidingWindowSize));
+        this.failureRateThreshold = circuitBreaker.getFailureRateThreshold();
+        this.slowCallRateThreshold = circuitBreaker.getSlowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(circuitBreaker.getSlowCallDurationThreshold());
+        this.waitNanos = TimeUnit.SECONDS.toNanos(circuitBreaker.getWaitDurationInOpenState());
+        this.permittedCallsInHalfOpenState = Math.max(1, circuitBreaker.getPermittedCallsInHalfOpenState());
+        this.outcomes = new AtomicIntegerArray(this.slidingWindowSize);
+    }
+
+    /**
+     * try to acquire the permission of a call
+     *
+     * @return the permit, pass it to the {@link #onResult(long, long, boolean)}, or {@link #NOT_PERMITTED}
+     */
+    public long tryAcquirePermission() {
+        for (; ; ) {
+            long word = this.state.get();
+            CircuitBreakerStateEnum current = stateOf(word);
+            if (CircuitBreakerStateEnum.CLOSED == current) {
+                return word;
+            }
+            if (CircuitBreakerStateEnum.OPEN == current) {
+                if (System.nanoTime() - this.openedAt < this.waitNanos) {
+                    return NOT_PERMITTED;
+                }
+                this.transitionToHalfOpen(word);
+                continue;
+            }
+
+            // HALF_OPEN
+            int available = this.permits.get();
+            if (available <= 0) {
+                return NOT_PERMITTED;
+            }
+            if (!this.permits.compareAndSet(available, available - 1)) {
+                continue;
+            }
+            if (this.state.get() != word) {
+                // the permit is taken from the trial calls of another generation, give it back
+                this.permits.incrementAndGet();
+                continue;
+            }
+            if (1 == available) {
+                // the last trial call, not selectable until decided
+                this.notifyListener();
+            }
+
+            return word;
+        }
+    }
+
+    /**
+     * record the outcome of a permitted call
+     * <p>
+     * the outcome is dropped, if the state transitioned after the permission
+     *
+     * @param permit        the permit of the {@link #tryAcquirePermission()}
+     * @param durationNanos the duration of the call
+     * @param success       the call completed normally or not
+     */
+    public void onResult(long permit, long durationNanos, boolean success) {
+        if (NOT_PERMITTED == permit || this.state.get() != permit) {
+            return;
+        }
+        int outcome = (success ? SUCCESS : FAILURE) | (durationNanos >= this.slowCallNanos ? SLOW : 0);
+        if (CircuitBreakerStateEnum.CLOSED == stateOf(permit)) {
+            this.recordClosed(permit, outcome);
+        } else if (CircuitBreakerStateEnum.HALF_OPEN == stateOf(permit)) {
+            this.recordHalfOpen(permit, outcome);
+        }
+    }
+
+    /**
+     * the route of the breaker can be selected or not
+     * <p>
+     * the CLOSED, the OPEN of which the wait duration elapsed, and the HALF_OPEN with the trial permits left
+     *
+     * @param now the current time in nanos
+     * @return boolean
+     */
+    public boolean isSelectable(long now) {
+        CircuitBreakerStateEnum current = this.getState();
+        if (CircuitBreakerStateEnum.OPEN == current) {
+            return now - this.openedAt >= this.waitNanos;
+        }
+
+        return CircuitBreakerStateEnum.CLOSED == current || this.permits.get() > 0;
+    }
+
+    /**
+     * the end of the wait duration of the OPEN state
+     *
+     * @return the time in nanos
+     */
+    public long openUntil() {
+        return this.openedAt + this.waitNanos;
+    }
+
+    public CircuitBreakerStateEnum getState() {
+        return stateOf(this.state.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // =================================================================================================================
+
+    private void recordClosed(long permit, int outcome) {
+        int index = (int) (this.cursor.getAndIncrement() % this.slidingWindowSize);
+        int previous = this.outcomes.getAndSet(index, outcome);
+        if (EMPTY == previous) {
+            this.calls.incrementAndGet();
+        }
+        int failed = bit(outcome, FAILURE) - bit(previous, FAILURE);
+        if (0 != failed) {
+            this.failures.addAndGet(failed);
+        }
+        int slow = bit(outcome, SLOW) - bit(previous, SLOW);
+        if (0 != slow) {
+            this.slowCalls.addAndGet(slow);
+        }
+        if (0 == (outcome & (FAILURE | SLOW))) {
+            // a fast success never raise the rates
+            return;
+        }
+
+        int current = this.calls.get();
+        if (current >= this.minimumCalls && this.exceeded(this.failures.get(), this.slowCalls.get(), current)) {
+            this.transitionToOpen(permit);
+        }
+    }
+
+    private void recordHalfOpen(long permit, int outcome) {
+        if (0 != (outcome & FAILURE)) {
+            this.trialFailures.incrementAndGet();
+        }
+        if (0 != (outcome & SLOW)) {
+            this.trialSlowCalls.incrementAndGet();
+        }
+        int current = this.trialCalls.incrementAndGet();
+        if (current != this.permittedCallsInHalfOpenState) {
+            // only the last trial call decide, once
+            return;
+        }
+        if (this.exceeded(this.trialFailures.get(), this.trialSlowCalls.get(), current)) {
+            this.transitionToOpen(permit);
+        } else {
+            this.transitionToClosed(permit);
+        }
+    }
+
+    private boolean exceeded(int failed, int slow, int total) {
+        return (this.failureRateThreshold > 0 && failed * 100L >= (long) this.failureRateThreshold * total)
+                || (this.slowCallRateThreshold > 0 && slow * 100L >= (long) this.slowCallRateThreshold * total);
+    }
+
+    private void transitionToOpen(long from) {
+        if (this.state.get() != from) {
+            return;
+        }
+        // before the transition, so the OPEN state is never read with a stale open time,
+        // the racing writers transition from the same state at the same time
+        this.openedAt = System.nanoTime();
+        if (this.state.compareAndSet(from, next(from, CircuitBreakerStateEnum.OPEN))) {
+            this.permits.set(0);
+            log.warn("the circuit breaker:[{}] transition from:[{}] to:[{}]", this.name, stateOf(from), CircuitBreakerStateEnum.OPEN);
+            this.notifyListener();
+        }
+    }
+
+    private void transitionToHalfOpen(long from) {
+        if (!this.state.compareAndSet(from, next(from, CircuitBreakerStateEnum.HALF_OPEN))) {
+            // the others win, compete for the permits
+            return;
+        }
+        this.trialCalls.set(0);
+        this.trialFailures.set(0);
+        this.trialSlowCalls.set(0);
+        this.permits.set(this.permittedCallsInHalfOpenState);
+        log.info("the circuit breaker:[{}] transition from:[{}] to:[{}]", this.name, CircuitBreakerStateEnum.OPEN, CircuitBreakerStateEnum.HALF_OPEN);
+    }
+
+    private void transitionToClosed(long from) {
+        for (int i = 0; i < this.slidingWindowSize; i++) {
+            this.outcomes.set(i, EMPTY);
+        }
+        this.cursor.set(0L);
+        this.calls.set(0);
+        this.failures.set(0);
+        this.slowCalls.set(0);
+        if (this.state.compareAndSet(from, next(from, CircuitBreakerStateEnum.CLOSED))) {
+            log.info("the circuit breaker:[{}] transition from:[{}] to:[{}]", this.name, CircuitBreakerStateEnum.HALF_OPEN, CircuitBreakerStateEnum.CLOSED);
+            this.notifyListener();
+        }
+    }
+
+    private void notifyListener() {
+        if (null != this.listener) {
+            this.listener.run();
+        }
+    }
+
+    private static long pack(long generation, CircuitBreakerStateEnum state) {
+        return generation << STATE_BITS | state.ordinal();
+    }
+
+    private static long next(long word, CircuitBreakerStateEnum state) {
+        return pack((word >>> STATE_BITS) + 1L, state);
+    }
+
+    private static CircuitBreakerStateEnum stateOf(long word) {
+        return STATES[(int) (word & STATE_MASK)];
+    }
+
+    private static int bit(int outcome, int flag) {
+        return 0 != (outcome & flag) ? 1 : 0;
+    }
+}
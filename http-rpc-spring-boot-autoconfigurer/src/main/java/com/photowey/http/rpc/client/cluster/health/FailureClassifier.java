@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
+
+import java.io.IOException;
+
+/**
+ * FailureClassifier
+ * <p>
+ * tell the failures of the route from the failures of the call,
+ * only the transport failures and the server errors count against the route health and the circuit breaker,
+ * the client errors (4xx), the business errors and the serialization errors say nothing about the route
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public final class FailureClassifier {
+
+    /**
+     * the timeouts not extends the {@link IOException}, e.g. the {@link java.util.concurrent.TimeoutException}
+     * and the read timeout of the netty, matched by name, so the netty is not required
+     */
+    private static final String TIMEOUT_EXCEPTION_SUFFIX = "TimeoutException";
+
+    private FailureClassifier() {
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * the call failed because of the route or not
+     * <p>
+     * the causal chain is walked, the executors wrap the transport exceptions in the {@link com.photowey.http.rpc.core.exception.HRpcException},
+     * the first recognized cause decides
+     *
+     * @param cause the failure of the call, null if the call completed normally
+     * @return true if the failure is a transport failure or a server error
+     */
+    public static boolean isRouteFailure(Throwable cause) {
+        for (Throwable current = cause; null != current; current = current.getCause()) {
+            if (current instanceof HttpStatusException) {
+                return ((HttpStatusException) current).isServerError();
+            }
+            if (current instanceof JsonProcessingException) {
+                // the Jackson exceptions extends the IOException, but the route works
+                return false;
+            }
+            if (current instanceof IOException || current.getClass().getSimpleName().endsWith(TIMEOUT_EXCEPTION_SUFFIX)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RouteHealth
+ * <p>
+ * the health state of a service route, the passive outlier counters and the ejection state,
+ * the thresholds are decided by the {@link ServiceHealth}
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.properties.ServiceRoute#health()
+ * @since 1.1.0
+ */
+public class RouteHealth {
+
+    private static final long CALL = 1L << 32;
+    private static final long FAILURE = 1L;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /**
+     * the calls of the window in the high 32 bits, and the failures in the low 32 bits, updated by one CAS
+     */
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * ejected by the passive outlier detection, until the {@link #ejectedUntil}
+     */
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+    /**
+     * ejected by the active probe, until the probe succeed
+     */
+    private volatile boolean probeDown;
+
+    /**
+     * record an invocation of the route
+     *
+     * @param success     the invocation completed normally or not
+     * @param now         the current time in nanos
+     * @param windowNanos the failure rate window in nanos
+     * @return the consecutive failures, 0 if succeed
+     */
+    int record(boolean success, long now, long windowNanos) {
+        long start = this.windowStart.get();
+        if (now - start >= windowNanos && this.windowStart.compareAndSet(start, now)) {
+            // the racing calls of the rolling may be lost, it's fine for a rate
+            this.window.set(0L);
+        }
+        if (success) {
+            this.window.addAndGet(CALL);
+            if (0 != this.consecutiveFailures.get()) {
+                // no write on the success path, unless the route is recovering
+                this.consecutiveFailures.set(0);
+            }
+            return 0;
+        }
+        this.window.addAndGet(CALL + FAILURE);
+
+        return this.consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * the failure rate of the window
+     *
+     * @param minimumCalls the min calls before the failure rate is evaluated
+     * @return the failure rate in percent, -1 if the calls are not enough
+     */
+    int failureRate(int minimumCalls) {
+        long current = this.window.get();
+        long calls = current >>> 32;
+        if (calls < Math.max(1, minimumCalls)) {
+            return -1;
+        }
+
+        return (int) ((current & 0xFFFFFFFFL) * 100 / calls);
+    }
+
+    void eject(long now, long ejectionNanos) {
+        this.ejectedUntil = now + ejectionNanos;
+        this.ejected = true;
+        this.consecutiveFailures.set(0);
+        this.window.set(0L);
+        this.windowStart.set(now);
+    }
+
+    void probe(boolean healthy) {
+        this.probeDown = !healthy;
+    }
+
+    /**
+     * the route is ejected by the passive outlier detection, and not expired yet
+     *
+     * @param now the current time in nanos
+     * @return boolean
+     */
+    boolean isEjected(long now) {
+        if (this.ejected && now - this.ejectedUntil >= 0) {
+            this.ejected = false;
+        }
+
+        return this.ejected;
+    }
+
+    /**
+     * the expiry of the passive ejection
+     *
+     * @return the time in nanos
+     */
+    long ejectedUntil() {
+        return this.ejectedUntil;
+    }
+
+    /**
+     * the route can be selected or not
+     *
+     * @param now the current time in nanos
+     * @return boolean
+     */
+    public boolean isHealthy(long now) {
+        return !this.probeDown && !this.isEjected(now);
+    }
+
+    public boolean isProbeDown() {
+        return this.probeDown;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.client.properties.HealthCheckProperties;
+import com.photowey.http.rpc.client.properties.ServiceInfo;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the route health Manager in Cluster mode
+ * <p>
+ * hold the {@link ServiceHealth} of each service, and run the active probes against the health path if enabled
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@Component
+public class RouteHealthManager implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteHealthManager.class);
+
+    @Autowired
+    private HRpcClientProperties hrpcClientProperties;
+
+    private final Map<String, ServiceHealth> services = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService prober;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        HealthCheckProperties healthCheck = this.hrpcClientProperties.getHealthCheck();
+        List<ServiceInfo> serviceInfos = this.hrpcClientProperties.getServices();
+        if (!healthCheck.isProbeEnabled() || HRpcUtils.isEmpty(serviceInfos)) {
+            return;
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hrpc-health-probe-");
+        threadFactory.setDaemon(true);
+        this.prober = new ScheduledThreadPoolExecutor(Math.max(1, healthCheck.getProbeThreads()), threadFactory);
+        long interval = TimeUnit.SECONDS.toMillis(healthCheck.getProbeInterval());
+        for (ServiceInfo serviceInfo : serviceInfos) {
+            if (HRpcUtils.isEmpty(serviceInfo.getRoutes())) {
+                continue;
+            }
+            ServiceHealth serviceHealth = this.determineServiceHealth(serviceInfo);
+            for (ServiceRoute route : serviceInfo.getRoutes()) {
+                // spread the probes over the interval
+                long initialDelay = ThreadLocalRandom.current().nextLong(Math.max(1L, interval));
+                this.prober.scheduleWithFixedDelay(() -> serviceHealth.probe(route, this.probe(route, healthCheck)),
+                        initialDelay, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (null != this.prober) {
+            this.prober.shutdownNow();
+        }
+    }
+
+    /**
+     * determine the health of the service, created once per service
+     *
+     * @param serviceInfo the config service info
+     * @return {@link ServiceHealth}
+     */
+    public ServiceHealth determineServiceHealth(ServiceInfo serviceInfo) {
+        return this.services.computeIfAbsent(serviceInfo.getService(),
+                service -> new ServiceHealth(serviceInfo, this.hrpcClientProperties.getHealthCheck()));
+    }
+
+    /**
+     * probe the health path of the route
+     *
+     * @param route       the route
+     * @param healthCheck the health check config
+     * @return the health path respond 2xx or not
+     */
+    protected boolean probe(ServiceRoute route, HealthCheckProperties healthCheck) {
+        String url = healthCheck.getProbeProtocol() + "://" + route.toHost() + healthCheck.getProbePath();
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            int timeout = (int) TimeUnit.SECONDS.toMillis(healthCheck.getProbeTimeout());
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestMethod("GET");
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                // drain the body, so the keep-alive connection can be reused
+                if (null != in) {
+                    byte[] buffer = new byte[256];
+                    while (in.read(buffer) >= 0) {
+                        // skip
+                    }
+                }
+            }
+
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("probe the route:[{}] exception", url, e);
+            }
+            if (null != connection) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+}
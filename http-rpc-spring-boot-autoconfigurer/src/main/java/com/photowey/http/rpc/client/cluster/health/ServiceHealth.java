@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.photowey.http.rpc.client.properties.CircuitBreakerProperties;
+import com.photowey.http.rpc.client.properties.HealthCheckProperties;
+import com.photowey.http.rpc.client.properties.ServiceInfo;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.core.enums.CircuitBreakerStateEnum;
+import com.photowey.http.rpc.core.exception.CircuitBreakerOpenException;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ServiceHealth
+ * <p>
+ * the healthy routes of a service, the cluster strategy selectors only see the healthy routes
+ * <p>
+ * the healthy routes is an immutable snapshot, rebuilt only when a route is ejected or recovered,
+ * so the reading is a volatile read, if all the routes are healthy, the snapshot is the config route list itself
+ * <p>
+ * the circuit breaker of each route guard the calls of the selected route, if enabled,
+ * the routes of which the breaker rejects the calls are not in the snapshot either, the OPEN ones until the wait duration elapsed,
+ * and the HALF_OPEN ones without the trial permits left, so the selectors never pick a route only to fail fast
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class ServiceHealth {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceHealth.class);
+
+    private final String service;
+    private final List<ServiceRoute> routes;
+
+    private final boolean enabled;
+    private final int consecutiveFailures;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long windowNanos;
+    private final long ejectionNanos;
+    private final int maxEjectionPercent;
+    /**
+     * the max ejected routes, the percent of the routes rounded down, at least one if the percent is positive,
+     * 0 if the percent is not positive, then the routes are never ejected by the passive detection
+     */
+    private final int maxEjections;
+
+    /**
+     * guard the ejection and the refresh, a lock not the monitor, so the virtual threads waiting on it are not pinned,
+     * the logging is always out of the lock
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    /**
+     * the circuit breakers of the routes, immutable, null if disabled
+     */
+    private final Map<ServiceRoute, CircuitBreaker> circuitBreakers;
+
+    public ServiceHealth(ServiceInfo serviceInfo, HealthCheckProperties healthCheck) {
+        this.service = serviceInfo.getService();
+        this.routes = serviceInfo.getRoutes();
+        this.enabled = healthCheck.isEnabled();
+        this.consecutiveFailures = healthCheck.getConsecutiveFailures();
+        this.failureRateThreshold = healthCheck.getFailureRateThreshold();
+        this.minimumCalls = healthCheck.getMinimumCalls();
+        this.windowNanos = TimeUnit.SECONDS.toNanos(healthCheck.getWindow());
+        this.ejectionNanos = TimeUnit.SECONDS.toNanos(healthCheck.getEjectionTime());
+        this.maxEjectionPercent = healthCheck.getMaxEjectionPercent();
+        this.maxEjections = determineMaxEjections(HRpcUtils.isEmpty(this.routes) ? 0 : this.routes.size(), this.maxEjectionPercent);
+        this.snapshot = new Snapshot(this.routes, false, 0L);
+        this.circuitBreakers = this.createCircuitBreakers(serviceInfo.getCircuitBreaker());
+    }
+
+    /**
+     * the healthy routes, all the routes if none is healthy
+     *
+     * @return the route list
+     */
+    public List<ServiceRoute> routes() {
+        Snapshot current = this.snapshot;
+        if (current.expiring && System.nanoTime() - current.expiry >= 0) {
+            // the earliest ejection expired, let the route back
+            current = this.refresh();
+        }
+
+        return current.healthy;
+    }
+
+    /**
+     * acquire the permission of a call to the selected route
+     *
+     * @param route the selected route
+     * @return the permit of the circuit breaker, pass it to the {@link #record(ServiceRoute, long, long, boolean)}
+     * @throws CircuitBreakerOpenException if the circuit breaker of the route is open
+     */
+    public long acquirePermission(ServiceRoute route) throws CircuitBreakerOpenException {
+        if (null == this.circuitBreakers) {
+            return CircuitBreaker.NOT_PERMITTED;
+        }
+        CircuitBreaker circuitBreaker = this.circuitBreakers.get(route);
+        if (null == circuitBreaker) {
+            return CircuitBreaker.NOT_PERMITTED;
+        }
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (CircuitBreaker.NOT_PERMITTED == permit) {
+            throw new CircuitBreakerOpenException("the circuit breaker:[{}] is:[{}], the call is not permitted",
+                    circuitBreaker.getName(), circuitBreaker.getState());
+        }
+
+        return permit;
+    }
+
+    /**
+     * record an invocation of the route, eject it if the consecutive failures or the failure rate exceed
+     *
+     * @param route         the selected route
+     * @param permit        the permit of the {@link #acquirePermission(ServiceRoute)}
+     * @param durationNanos the duration of the invocation
+     * @param success       the invocation completed normally or not
+     */
+    public void record(ServiceRoute route, long permit, long durationNanos, boolean success) {
+        if (null != this.circuitBreakers) {
+            CircuitBreaker circuitBreaker = this.circuitBreakers.get(route);
+            if (null != circuitBreaker) {
+                circuitBreaker.onResult(permit, durationNanos, success);
+            }
+        }
+        if (!this.enabled || 0 == this.maxEjections) {
+            return;
+        }
+        long now = System.nanoTime();
+        RouteHealth health = route.health();
+        int failures = health.record(success, now, this.windowNanos);
+        if (success) {
+            return;
+        }
+        if ((this.consecutiveFailures > 0 && failures >= this.consecutiveFailures)
+                || (this.failureRateThreshold > 0 && health.failureRate(this.minimumCalls) >= this.failureRateThreshold)) {
+            this.eject(route, now);
+        }
+    }
+
+    /**
+     * record a probe result of the route
+     *
+     * @param route   the probed route
+     * @param healthy the health path respond 2xx or not
+     */
+    public void probe(ServiceRoute route, boolean healthy) {
+        RouteHealth health = route.health();
+        if (health.isProbeDown() != healthy) {
+            return;
+        }
+        health.probe(healthy);
+        if (healthy) {
+            log.info("the route:[{}] of the service:[{}] is recovered by the probe", route.toHost(), this.service);
+        } else {
+            log.warn("the route:[{}] of the service:[{}] is ejected by the probe", route.toHost(), this.service);
+        }
+        this.refresh();
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public List<ServiceRoute> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * the circuit breaker of the route
+     *
+     * @param route the route
+     * @return {@link CircuitBreaker}, null if disabled
+     */
+    public CircuitBreaker getCircuitBreaker(ServiceRoute route) {
+        return null == this.circuitBreakers ? null : this.circuitBreakers.get(route);
+    }
+
+    // =================================================================================================================
+
+    private Map<ServiceRoute, CircuitBreaker> createCircuitBreakers(CircuitBreakerProperties circuitBreaker) {
+        if (null == circuitBreaker || !circuitBreaker.isEnabled() || HRpcUtils.isEmpty(this.routes)) {
+            return null;
+        }
+        // the routes are the config beans, identified by the reference
+        Map<ServiceRoute, CircuitBreaker> circuitBreakers = new IdentityHashMap<>(this.routes.size());
+        for (ServiceRoute route : this.routes) {
+            // rebuild the snapshot, when the route become selectable or not
+            circuitBreakers.put(route, new CircuitBreaker(this.service + "@" + route.toHost(), circuitBreaker, this::refresh));
+        }
+
+        return circuitBreakers;
+    }
+
+    /**
+     * the max ejected routes of the service
+     *
+     * @param routes  the route count
+     * @param percent the max ejection percent
+     * @return the percent of the routes rounded down, at least one if the percent is positive, 0 if the percent is not positive
+     */
+    static int determineMaxEjections(int routes, int percent) {
+        if (percent <= 0 || routes <= 0) {
+            return 0;
+        }
+
+        return Math.max(1, routes * Math.min(percent, 100) / 100);
+    }
+
+    private void eject(ServiceRoute route, long now) {
+        boolean ejected;
+        this.lock.lock();
+        try {
+            if (route.health().isEjected(now)) {
+                return;
+            }
+            int count = 0;
+            for (ServiceRoute candidate : this.routes) {
+                if (candidate.health().isEjected(now)) {
+                    count++;
+                }
+            }
+            ejected = count < this.maxEjections;
+            if (ejected) {
+                route.health().eject(now, this.ejectionNanos);
+                this.doRefresh();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (ejected) {
+            log.warn("the route:[{}] of the service:[{}] is ejected for:[{}]s", route.toHost(), this.service, TimeUnit.NANOSECONDS.toSeconds(this.ejectionNanos));
+        } else {
+            log.warn("the route:[{}] of the service:[{}] is failing, but the ejected routes reach the max percent:[{}]",
+                    route.toHost(), this.service, this.maxEjectionPercent);
+        }
+    }
+
+    private Snapshot refresh() {
+        this.lock.lock();
+        try {
+            return this.doRefresh();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * rebuild the snapshot, the lock is held by the caller
+     *
+     * @return the refreshed snapshot
+     */
+    private Snapshot doRefresh() {
+        if (HRpcUtils.isEmpty(this.routes)) {
+            return this.snapshot;
+        }
+        long now = System.nanoTime();
+        List<ServiceRoute> healthy = new ArrayList<>(this.routes.size());
+        boolean expiring = false;
+        long expiry = 0L;
+        for (ServiceRoute route : this.routes) {
+            RouteHealth health = route.health();
+            CircuitBreaker circuitBreaker = this.getCircuitBreaker(route);
+            boolean selectable = null == circuitBreaker || circuitBreaker.isSelectable(now);
+            if (selectable && health.isHealthy(now)) {
+                healthy.add(route);
+                continue;
+            }
+            if (health.isEjected(now) && (!expiring || health.ejectedUntil() - expiry < 0)) {
+                expiring = true;
+                expiry = health.ejectedUntil();
+            }
+            if (!selectable && CircuitBreakerStateEnum.OPEN == circuitBreaker.getState()
+                    && (!expiring || circuitBreaker.openUntil() - expiry < 0)) {
+                // let the route back for the trial calls, once the wait duration elapsed
+                expiring = true;
+                expiry = circuitBreaker.openUntil();
+            }
+        }
+
+        // none is healthy, it's better to try all the routes than fail fast
+        List<ServiceRoute> selectable = healthy.size() == this.routes.size() || healthy.isEmpty()
+                ? this.routes
+                : Collections.unmodifiableList(healthy);
+        Snapshot refreshed = new Snapshot(selectable, expiring, expiry);
+        this.snapshot = refreshed;
+
+        return refreshed;
+    }
+
+    /**
+     * the immutable healthy routes, and the earliest expiry of the passive ejections
+     */
+    private static final class Snapshot {
+
+        private final List<ServiceRoute> healthy;
+        private final boolean expiring;
+        private final long expiry;
+
+        private Snapshot(List<ServiceRoute> healthy, boolean expiring, long expiry) {
+            this.healthy = healthy;
+            this.expiring = expiring;
+            this.expiry = expiry;
+        }
+    }
+}
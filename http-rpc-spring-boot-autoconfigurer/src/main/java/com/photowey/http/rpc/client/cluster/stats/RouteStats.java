@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RouteStats
+ * <p>
+ * the runtime statistics of a service route, such as the in-flight calls and the peak-EWMA latency,
+ * updated around each invocation, and read by the load aware cluster strategy selectors
+ * <p>
+ * all the state is atomic, the updating and the reading are lock free and allocation free
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.properties.ServiceRoute#stats()
+ * @since 1.1.0
+ */
+public class RouteStats {
+
+    /**
+     * the in-flight calls, striped, so the concurrent invocations not contend on a single counter
+     */
+    private final LongAdder active = new LongAdder();
+
+    /**
+     * the decay time of the EWMA, a sample of the {@code DECAY_NANOS} ago is weighted 1/e
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * a failed invocation is observed as the current peak multiplied by the factor
+     */
+    private static final double FAILURE_PENALTY_FACTOR = 4D;
+    /**
+     * the minimum latency sample of a failed invocation, so a route failing fast does not look fast
+     */
+    private static final double FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * the maximum penalty, so the consecutive failures do not compound the peak without bound
+     */
+    private static final double MAX_FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * the peak-EWMA latency in nanos, the bits of a double, so it is updated by CAS
+     */
+    private final AtomicLong latency = new AtomicLong(Double.doubleToRawLongBits(0D));
+    /**
+     * the last update time of the {@link #latency}
+     */
+    private final AtomicLong stamp = new AtomicLong(System.nanoTime());
+
+    /**
+     * begin an invocation
+     *
+     * @return the start time in nanos, pass it to the {@link #end(long, boolean)}
+     */
+    public long begin() {
+        this.active.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * end an invocation, must be called exactly once for each {@link #begin()}
+     * <p>
+     * a failed invocation is observed as a penalty instead of its real latency,
+     * the refused connections and the error responses return quickly,
+     * and must not attract more traffic to the failing route
+     *
+     * @param startNanos the start time of the {@link #begin()}
+     * @param success    the invocation completed normally or not
+     */
+    public void end(long startNanos, boolean success) {
+        this.active.decrement();
+        long now = System.nanoTime();
+        long rtt = now - startNanos;
+        if (success) {
+            this.observe(rtt, now);
+            return;
+        }
+
+        double peak = Double.longBitsToDouble(this.latency.get());
+        double penalty = Math.min(Math.max(peak * FAILURE_PENALTY_FACTOR, FAILURE_PENALTY_NANOS), MAX_FAILURE_PENALTY_NANOS);
+        this.observe(Math.max(rtt, penalty), now);
+    }
+
+    /**
+     * observe a latency sample
+     * <p>
+     * the peak is taken at once, so a slow route is penalized immediately,
+     * the lower sample is blended by the time based EWMA, so a recovered route regain the traffic smoothly
+     *
+     * @param rtt the latency of the invocation in nanos
+     * @param now the current time in nanos
+     */
+    private void observe(double rtt, long now) {
+        for (; ; ) {
+            long bits = this.latency.get();
+            double current = Double.longBitsToDouble(bits);
+            double next;
+            if (rtt > current) {
+                next = rtt;
+            } else {
+                double weight = Math.exp(-Math.max(0L, now - this.stamp.get()) / DECAY_NANOS);
+                next = current * weight + rtt * (1D - weight);
+            }
+            if (this.latency.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                // the racing stamps differ in nanos only, the last one wins
+                this.stamp.set(now);
+                return;
+            }
+        }
+    }
+
+    /**
+     * the in-flight calls
+     *
+     * @return the active count
+     */
+    public long active() {
+        return this.active.sum();
+    }
+
+    /**
+     * the peak-EWMA latency in nanos, decayed to now, 0 if never observed
+     *
+     * @return the latency
+     */
+    public double latency() {
+        double current = Double.longBitsToDouble(this.latency.get());
+        long elapsed = Math.max(0L, System.nanoTime() - this.stamp.get());
+        return current * Math.exp(-elapsed / DECAY_NANOS);
+    }
+
+    /**
+     * the load score of the route, the lower is better
+     * <p>
+     * the expected latency multiplied by the in-flight calls include the next one,
+     * a never observed route scores by its in-flight calls only, so it is probed soon
+     *
+     * @return the score
+     */
+    public double score() {
+        return (this.latency() + 1D) * (this.active() + 1L);
+    }
+}
@@ -45,6 +45,31 @@ public interface ClusterStrategySelector {
      */
     ServiceRoute select(List<ServiceRoute> routes) throws RpcServiceNotAvailableException;
 
+    /**
+     * select a target service for invoke, the selector state is kept per service
+     *
+     * @param service the target service
+     * @param routes  the service list
+     * @return the invoke target service
+     * @since 1.1.0
+     */
+    default ServiceRoute select(String service, List<ServiceRoute> routes) throws RpcServiceNotAvailableException {
+        return this.select(routes);
+    }
+
+    /**
+     * select a target service for invoke by the hash key of the request
+     *
+     * @param service the target service
+     * @param routes  the service list
+     * @param hashKey the hash key of the request, maybe null
+     * @return the invoke target service
+     * @since 1.1.0
+     */
+    default ServiceRoute select(String service, List<ServiceRoute> routes, String hashKey) throws RpcServiceNotAvailableException {
+        return this.select(service, routes);
+    }
+
     /**
      * get the support strategy
      *
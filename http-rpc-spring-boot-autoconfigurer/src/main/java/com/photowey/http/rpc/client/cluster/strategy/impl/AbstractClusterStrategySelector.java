@@ -24,7 +24,6 @@ import com.photowey.http.rpc.core.util.HRpcUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -44,6 +43,13 @@ public abstract class AbstractClusterStrategySelector implements ClusterStrategy
         return this.strategy().equals(strategy);
     }
 
+    /**
+     * the state key of the callers without the service
+     *
+     * @since 1.1.0
+     */
+    protected static final String DEFAULT_SERVICE = "default";
+
     /**
      * select a target service for invoke
      *
@@ -52,6 +58,16 @@ public abstract class AbstractClusterStrategySelector implements ClusterStrategy
      */
     @Override
     public ServiceRoute select(List<ServiceRoute> routes) throws RpcServiceNotAvailableException {
+        return this.select(DEFAULT_SERVICE, routes);
+    }
+
+    @Override
+    public ServiceRoute select(String service, List<ServiceRoute> routes) throws RpcServiceNotAvailableException {
+        return this.select(service, routes, null);
+    }
+
+    @Override
+    public ServiceRoute select(String service, List<ServiceRoute> routes, String hashKey) throws RpcServiceNotAvailableException {
         if (null == routes) {
             // the checkAvailable will be throw {@link RpcServiceNotAvailableException}
             // not NullPointerException
@@ -62,7 +78,7 @@ public abstract class AbstractClusterStrategySelector implements ClusterStrategy
         if (1 == serviceCount) {
             return routes.get(0);
         }
-        return this.doSelect(routes);
+        return this.doSelect(service, routes, hashKey);
     }
 
     /**
@@ -85,20 +101,27 @@ public abstract class AbstractClusterStrategySelector implements ClusterStrategy
     public abstract ServiceRoute doSelect(List<ServiceRoute> routes);
 
     /**
-     * reset the service list by itself weight
+     * executing decision options of the service, the stateful selectors keep the state per service
      *
-     * @param routes the service list
-     * @return the reset service list
+     * @param service the target service
+     * @param routes  the service list
+     * @return the invoke target service
+     * @since 1.1.0
      */
-    protected List<ServiceRoute> resetProviderServiceListByWeight(List<ServiceRoute> routes) {
-        List<ServiceRoute> reset = new ArrayList<>();
-        for (ServiceRoute current : routes) {
-            int weight = current.getWeight();
-            for (int i = 0; i < weight; i++) {
-                reset.add(current);
-            }
-        }
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes) {
+        return this.doSelect(routes);
+    }
 
-        return reset;
+    /**
+     * executing decision options of the service by the hash key, only the hash selector care about the key
+     *
+     * @param service the target service
+     * @param routes  the service list
+     * @param hashKey the hash key of the request, maybe null
+     * @return the invoke target service
+     * @since 1.1.0
+     */
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes, String hashKey) {
+        return this.doSelect(service, routes);
     }
 }
@@ -18,9 +18,9 @@ package com.photowey.http.rpc.client.cluster.strategy.impl;
 import com.photowey.http.rpc.client.properties.ServiceRoute;
 
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * AbstractPollingClusterStrategySelector
@@ -31,39 +31,39 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public abstract class AbstractPollingClusterStrategySelector extends AbstractClusterStrategySelector {
 
-    protected int selector = 0;
-    protected int LOCK_TIME_SECONDS = 10;
-
-    protected Lock lock = null;
-
-    public AbstractPollingClusterStrategySelector() {
-        lock = new ReentrantLock();
-    }
+    /**
+     * the polling counters per service, lock-free,
+     * the selecting thread is never parked, nor pinned in the virtual-threads mode
+     *
+     * @since 1.1.0
+     */
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
 
     @Override
     public ServiceRoute doSelect(List<ServiceRoute> routes) {
-        ServiceRoute target = null;
-        try {
-            this.lock.tryLock(LOCK_TIME_SECONDS, TimeUnit.SECONDS);
+        return this.doSelect(DEFAULT_SERVICE, routes);
+    }
 
-            List<ServiceRoute> reset = this.doReset(routes);
-            int serviceCount = reset.size();
-            if (this.selector >= serviceCount) {
-                this.selector = 0;
-            }
-            target = reset.get(this.selector);
-            this.selector++;
-        } catch (Exception e) {
-            log.error("select the target service exception by polling", e);
-        } finally {
-            this.lock.unlock();
+    @Override
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes) {
+        List<ServiceRoute> reset = this.doReset(routes);
+        int serviceCount = reset.size();
+        if (0 == serviceCount) {
+            return routes.get(0);
         }
+        // floorMod keep the index positive after the counter overflow
+        int index = (int) Math.floorMod(this.determineCounter(service).getAndIncrement(), (long) serviceCount);
+
+        return reset.get(index);
+    }
 
-        if (target == null) {
-            target = routes.get(0);
+    private AtomicLong determineCounter(String service) {
+        AtomicLong counter = this.counters.get(service);
+        if (null != counter) {
+            return counter;
         }
 
-        return target;
+        return this.counters.computeIfAbsent(service, key -> new AtomicLong());
     }
 
     /**
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AbstractRouteTableClusterStrategySelector
+ * <p>
+ * the selector precomputes a table of the route list once per service,
+ * the table is rebuilt only when the routes or the weights change, so the selecting is allocation free
+ *
+ * @param <T> the table type
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public abstract class AbstractRouteTableClusterStrategySelector<T extends AbstractRouteTableClusterStrategySelector.RouteTable>
+        extends AbstractClusterStrategySelector {
+
+    private final Map<String, T> tables = new ConcurrentHashMap<>();
+
+    @Override
+    public ServiceRoute doSelect(List<ServiceRoute> routes) {
+        return this.doSelect(DEFAULT_SERVICE, routes);
+    }
+
+    /**
+     * determine the table of the service, rebuild it if the routes changed
+     * <p>
+     * the concurrent rebuilding is idempotent, the last one wins
+     *
+     * @param service the target service
+     * @param routes  the service list
+     * @return the table
+     */
+    protected T determineTable(String service, List<ServiceRoute> routes) {
+        T table = this.tables.get(service);
+        if (null == table || !table.matches(routes)) {
+            table = this.buildTable(routes);
+            this.tables.put(service, table);
+        }
+
+        return table;
+    }
+
+    /**
+     * build the table of the route list
+     *
+     * @param routes the service list, not empty
+     * @return the table
+     */
+    protected abstract T buildTable(List<ServiceRoute> routes);
+
+    /**
+     * the precomputed table of a route list
+     */
+    public static class RouteTable {
+
+        protected final List<ServiceRoute> routes;
+        protected final int[] weights;
+
+        public RouteTable(List<ServiceRoute> routes) {
+            this.routes = routes;
+            this.weights = new int[routes.size()];
+            for (int i = 0; i < this.weights.length; i++) {
+                this.weights[i] = routes.get(i).getWeight();
+            }
+        }
+
+        /**
+         * the same route list, and the weights not changed
+         *
+         * @param routes the service list
+         * @return boolean
+         */
+        public boolean matches(List<ServiceRoute> routes) {
+            if (this.routes != routes || this.weights.length != routes.size()) {
+                return false;
+            }
+            for (int i = 0; i < this.weights.length; i++) {
+                if (this.weights[i] != routes.get(i).getWeight()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
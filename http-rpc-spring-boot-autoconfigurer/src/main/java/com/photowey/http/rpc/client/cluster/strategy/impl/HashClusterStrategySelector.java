@@ -17,33 +17,153 @@ package com.photowey.http.rpc.client.cluster.strategy.impl;
 
 import com.photowey.http.rpc.client.properties.ServiceRoute;
 import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.util.IpUtils;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * this selector using a hash algorithm
+ * this selector using a consistent hash algorithm
+ * <p>
+ * the ketama ring with the virtual nodes is built once per route list,
+ * the key of the {@literal @}HashKey parameter is mapped to the first node clockwise,
+ * so adding or removing a route remap only about 1/N of the keys
+ * <p>
+ * the invocation without the hash key is routed by the local ip
  *
  * @author WcJun
  * @date 2020/09/06
+ * @see com.photowey.http.rpc.core.annotation.HashKey
  * @since 1.1.0
  */
 @Component
-public class HashClusterStrategySelector extends AbstractClusterStrategySelector {
+public class HashClusterStrategySelector extends AbstractRouteTableClusterStrategySelector<HashClusterStrategySelector.HashRing> {
+
+    /**
+     * the virtual nodes per route, each md5 digest provide 4 nodes
+     */
+    private static final int VIRTUAL_NODES = 160;
+    private static final int NODES_PER_DIGEST = 4;
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(HashClusterStrategySelector::newMd5);
+
+    /**
+     * the local ip walk the network interfaces, resolve it only once
+     */
+    private static volatile String localIp;
 
     @Override
-    public ServiceRoute doSelect(List<ServiceRoute> routes) {
-        String localIP = IpUtils.getLocalIP();
-        int ipHash = localIP.hashCode();
-        log.info("find this server ip is:[{}],and hashCode is:[{}],the routes count is:[{}]", localIP, ipHash, routes.size());
-        int serviceCount = routes.size();
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes) {
+        return this.doSelect(service, routes, null);
+    }
 
-        return routes.get(ipHash % serviceCount);
+    @Override
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes, String hashKey) {
+        String key = null == hashKey ? determineLocalIp() : hashKey;
+        return this.determineTable(service, routes).select(key);
+    }
+
+    @Override
+    protected HashRing buildTable(List<ServiceRoute> routes) {
+        return new HashRing(routes);
     }
 
     @Override
     public ClusterStrategyEnum strategy() {
         return ClusterStrategyEnum.HASH;
     }
+
+    // =================================================================================================================
+
+    private static String determineLocalIp() {
+        String ip = localIp;
+        if (null == ip) {
+            ip = IpUtils.getLocalIP();
+            localIp = ip;
+        }
+
+        return ip;
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new HRpcException("the MD5 algorithm not supported", e);
+        }
+    }
+
+    private static byte[] md5(String key) {
+        MessageDigest digest = MD5.get();
+        digest.reset();
+        return digest.digest(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * the unsigned 32 bits hash of the digest, the {@code number} in [0, 4)
+     */
+    private static long hash(byte[] digest, int number) {
+        return ((long) (digest[3 + number * 4] & 0xFF) << 24)
+                | ((long) (digest[2 + number * 4] & 0xFF) << 16)
+                | ((long) (digest[1 + number * 4] & 0xFF) << 8)
+                | (digest[number * 4] & 0xFF);
+    }
+
+    /**
+     * the consistent hash ring of a route list
+     */
+    public static class HashRing extends RouteTable {
+
+        /**
+         * the sorted node hashes, and the route index of the node
+         */
+        private final long[] points;
+        private final int[] indexes;
+
+        public HashRing(List<ServiceRoute> routes) {
+            super(routes);
+            int size = routes.size() * VIRTUAL_NODES;
+            long[] packed = new long[size];
+            int n = 0;
+            for (int i = 0; i < routes.size(); i++) {
+                String host = routes.get(i).toHost();
+                for (int j = 0; j < VIRTUAL_NODES / NODES_PER_DIGEST; j++) {
+                    byte[] digest = md5(host + "-" + j);
+                    for (int k = 0; k < NODES_PER_DIGEST; k++) {
+                        // the high 32 bits is the hash, the low 32 bits is the route index,
+                        // flip the sign bit, so the signed sorting is the unsigned order of the hash
+                        packed[n++] = (hash(digest, k) << 32 | i) ^ Long.MIN_VALUE;
+                    }
+                }
+            }
+            Arrays.sort(packed);
+
+            this.points = new long[size];
+            this.indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                long node = packed[i] ^ Long.MIN_VALUE;
+                this.points[i] = node >>> 32;
+                this.indexes[i] = (int) node;
+            }
+        }
+
+        public ServiceRoute select(String key) {
+            long hash = hash(md5(key), 0);
+            int index = Arrays.binarySearch(this.points, hash);
+            if (index < 0) {
+                // the first node clockwise, wrap around the ring
+                index = -index - 1;
+                if (index == this.points.length) {
+                    index = 0;
+                }
+            }
+
+            return this.routes.get(this.indexes[index]);
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * this selector using a least-active algorithm
+ * <p>
+ * select the route with the fewest in-flight calls, so a slow route receive less traffic,
+ * the ties are broken by a weight-random, one pass and allocation free
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.cluster.stats.RouteStats#active()
+ * @since 1.1.0
+ */
+@Component
+public class LeastActiveClusterStrategySelector extends AbstractClusterStrategySelector {
+
+    @Override
+    public ServiceRoute doSelect(List<ServiceRoute> routes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ServiceRoute selected = null;
+        long leastActive = Long.MAX_VALUE;
+        long totalWeight = 0;
+        for (ServiceRoute route : routes) {
+            long active = route.stats().active();
+            // the non-positive weight is treated as 1
+            int weight = Math.max(1, route.getWeight());
+            if (active < leastActive) {
+                leastActive = active;
+                totalWeight = weight;
+                selected = route;
+            } else if (active == leastActive) {
+                // the weighted reservoir sampling: keep the current tie with the probability weight / totalWeight
+                totalWeight += weight;
+                if (random.nextLong(totalWeight) < weight) {
+                    selected = route;
+                }
+            }
+        }
+
+        return selected;
+    }
+
+    @Override
+    public ClusterStrategyEnum strategy() {
+        return ClusterStrategyEnum.LEAST_ACTIVE;
+    }
+}
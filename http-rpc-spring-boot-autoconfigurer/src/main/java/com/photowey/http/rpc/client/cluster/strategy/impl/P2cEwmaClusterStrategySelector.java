@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * this selector using a power-of-two-choices algorithm with the peak-EWMA latency
+ * <p>
+ * sample two distinct routes at random, and select the one with the lower score per weight,
+ * O(1) for any route count, and no shared state is written on selecting
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.cluster.stats.RouteStats#score()
+ * @since 1.1.0
+ */
+@Component
+public class P2cEwmaClusterStrategySelector extends AbstractClusterStrategySelector {
+
+    @Override
+    public ServiceRoute doSelect(List<ServiceRoute> routes) {
+        int serviceCount = routes.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(serviceCount);
+        // the second is in the others, so the two choices are distinct
+        int second = random.nextInt(serviceCount - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceRoute a = routes.get(first);
+        ServiceRoute b = routes.get(second);
+        return this.score(a) <= this.score(b) ? a : b;
+    }
+
+    private double score(ServiceRoute route) {
+        // the non-positive weight is treated as 1
+        return route.stats().score() / Math.max(1, route.getWeight());
+    }
+
+    @Override
+    public ClusterStrategyEnum strategy() {
+        return ClusterStrategyEnum.P2C_EWMA;
+    }
+}
@@ -35,7 +35,8 @@ public class RandomClusterStrategySelector extends AbstractClusterStrategySelect
     @Override
     public ServiceRoute doSelect(List<ServiceRoute> routes) {
         int serviceCount = routes.size();
-        int seed = RandomUtils.nextInt(0, serviceCount - 1);
+        // the end is exclusive
+        int seed = RandomUtils.nextInt(0, serviceCount);
         return routes.get(seed);
     }
 
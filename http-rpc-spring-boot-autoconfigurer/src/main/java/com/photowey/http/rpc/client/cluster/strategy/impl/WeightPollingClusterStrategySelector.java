@@ -20,24 +20,108 @@ import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * this selector using a weight-polling algorithm
+ * this selector using a smooth weight-polling algorithm, the same as the nginx
+ * <p>
+ * the smooth sequence is precomputed once per route list, such as: the weights {5, 1, 1} -> a a b a c a a,
+ * the heavy route is interleaved with the others, rather than the bursts,
+ * the selecting is O(1), lock-free and allocation free
  *
  * @author WcJun
  * @date 2020/09/06
  * @since 1.1.0
  */
 @Component
-public class WeightPollingClusterStrategySelector extends AbstractPollingClusterStrategySelector {
+public class WeightPollingClusterStrategySelector extends AbstractRouteTableClusterStrategySelector<WeightPollingClusterStrategySelector.SmoothTable> {
+
+    /**
+     * the max sequence length, the weights are scaled down proportionally if exceeded
+     */
+    static final int MAX_SEQUENCE_LENGTH = 1 << 16;
 
     @Override
-    public List<ServiceRoute> doReset(List<ServiceRoute> routes) {
-        return super.resetProviderServiceListByWeight(routes);
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes) {
+        SmoothTable table = this.determineTable(service, routes);
+        int index = (int) Math.floorMod(table.counter.getAndIncrement(), (long) table.sequence.length);
+
+        return routes.get(table.sequence[index]);
+    }
+
+    @Override
+    protected SmoothTable buildTable(List<ServiceRoute> routes) {
+        return new SmoothTable(routes);
     }
 
     @Override
     public ClusterStrategyEnum strategy() {
         return ClusterStrategyEnum.WEIGHT_POLLING;
     }
+
+    static class SmoothTable extends RouteTable {
+
+        /**
+         * the route indexes of a whole smooth round
+         */
+        final int[] sequence;
+        final AtomicLong counter = new AtomicLong();
+
+        SmoothTable(List<ServiceRoute> routes) {
+            super(routes);
+            this.sequence = smooth(normalize(this.weights));
+        }
+
+        /**
+         * reduce the weights by the gcd, and scale them down if the round is too long,
+         * the non-positive weight is treated as 1
+         */
+        static int[] normalize(int[] weights) {
+            int[] normalized = new int[weights.length];
+            int gcd = 0;
+            long total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                normalized[i] = Math.max(1, weights[i]);
+                gcd = gcd(gcd, normalized[i]);
+                total += normalized[i];
+            }
+            total /= gcd;
+            double scale = total > MAX_SEQUENCE_LENGTH ? (double) MAX_SEQUENCE_LENGTH / total : 1D;
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] = Math.max(1, (int) (normalized[i] / gcd * scale));
+            }
+
+            return normalized;
+        }
+
+        /**
+         * the nginx smooth weighted round-robin:
+         * each step, every route's current weight += its weight, the max one is selected, and its current weight -= the total
+         */
+        static int[] smooth(int[] weights) {
+            int total = 0;
+            for (int weight : weights) {
+                total += weight;
+            }
+            int[] current = new int[weights.length];
+            int[] sequence = new int[total];
+            for (int step = 0; step < total; step++) {
+                int selected = 0;
+                for (int i = 0; i < weights.length; i++) {
+                    current[i] += weights[i];
+                    if (current[i] > current[selected]) {
+                        selected = i;
+                    }
+                }
+                current[selected] -= total;
+                sequence[step] = selected;
+            }
+
+            return sequence;
+        }
+
+        private static int gcd(int a, int b) {
+            return 0 == b ? a : gcd(b, a % b);
+        }
+    }
 }
@@ -17,32 +17,98 @@ package com.photowey.http.rpc.client.cluster.strategy.impl;
 
 import com.photowey.http.rpc.client.properties.ServiceRoute;
 import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
-import com.photowey.http.rpc.core.util.RandomUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * this selector using a weight-random algorithm
+ * <p>
+ * the Vose alias table is precomputed once per route list, each draw is O(1):
+ * a uniform column, and a biased coin between the column and its alias
  *
  * @author WcJun
  * @date 2020/09/06
  * @since 1.1.0
  */
 @Component
-public class WeightRandomClusterStrategySelector extends AbstractClusterStrategySelector {
+public class WeightRandomClusterStrategySelector extends AbstractRouteTableClusterStrategySelector<WeightRandomClusterStrategySelector.AliasTable> {
 
     @Override
-    public ServiceRoute doSelect(List<ServiceRoute> routes) {
-        List<ServiceRoute> reset = super.resetProviderServiceListByWeight(routes);
-        int weightCount = reset.size();
-        int seed = RandomUtils.nextInt(0, weightCount - 1);
+    public ServiceRoute doSelect(String service, List<ServiceRoute> routes) {
+        AliasTable table = this.determineTable(service, routes);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(table.probability.length);
+        int index = random.nextDouble() < table.probability[column] ? column : table.alias[column];
 
-        return reset.get(seed);
+        return routes.get(index);
+    }
+
+    @Override
+    protected AliasTable buildTable(List<ServiceRoute> routes) {
+        return new AliasTable(routes);
     }
 
     @Override
     public ClusterStrategyEnum strategy() {
         return ClusterStrategyEnum.WEIGHT_RANDOM;
     }
+
+    static class AliasTable extends RouteTable {
+
+        final double[] probability;
+        final int[] alias;
+
+        AliasTable(List<ServiceRoute> routes) {
+            super(routes);
+            int n = this.weights.length;
+            this.probability = new double[n];
+            this.alias = new int[n];
+
+            // the non-positive weight is treated as 1
+            double total = 0D;
+            for (int weight : this.weights) {
+                total += Math.max(1, weight);
+            }
+            // scale the weights, so the average is 1
+            double[] scaled = new double[n];
+            Deque<Integer> small = new ArrayDeque<>();
+            Deque<Integer> large = new ArrayDeque<>();
+            for (int i = 0; i < n; i++) {
+                scaled[i] = Math.max(1, this.weights[i]) * n / total;
+                if (scaled[i] < 1D) {
+                    small.push(i);
+                } else {
+                    large.push(i);
+                }
+            }
+            // pair each small column with a large one, the large one fills the rest of the column
+            while (!small.isEmpty() && !large.isEmpty()) {
+                int less = small.pop();
+                int more = large.pop();
+                this.probability[less] = scaled[less];
+                this.alias[less] = more;
+                scaled[more] = scaled[more] + scaled[less] - 1D;
+                if (scaled[more] < 1D) {
+                    small.push(more);
+                } else {
+                    large.push(more);
+                }
+            }
+            // the rest are full columns, include the numerical residues
+            while (!large.isEmpty()) {
+                int more = large.pop();
+                this.probability[more] = 1D;
+                this.alias[more] = more;
+            }
+            while (!small.isEmpty()) {
+                int less = small.pop();
+                this.probability[less] = 1D;
+                this.alias[less] = less;
+            }
+        }
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.photowey.http.rpc.core.exception.HRpcException;
+import org.springframework.util.Assert;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * JSON Codec
+ * <p>
+ * the {@link ObjectWriter} and {@link ObjectReader} are resolved once per declared type when the method is compiled,
+ * and reused by all the invocations
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class JsonCodec {
+
+    /**
+     * the payload up to the limit is serialized into the pooled buffer, the larger payload is streamed,
+     * the buffer grown over the limit is not returned to the pool
+     */
+    public static final int POOLED_BUFFER_LIMIT = 64 * 1024;
+
+    /**
+     * the idle buffers, shared by the threads, so the virtual threads are pooled too
+     */
+    private static final int POOL_SIZE = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+
+    private final BlockingQueue<PooledByteBuffer> buffers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final ObjectMapper objectMapper;
+
+    public JsonCodec(ObjectMapper objectMapper) {
+        Assert.notNull(objectMapper, "the target ObjectMapper can't be null");
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    // =================================================================================================================
+
+    /**
+     * the writer of the {@literal @}RequestBody declared type
+     * <p>
+     * only the final type is bound to the writer, the other types keep the runtime type serialization,
+     * so the properties of the sub-class are not dropped
+     *
+     * @param type the declared type
+     * @return {@link ObjectWriter}
+     */
+    public ObjectWriter writerFor(Class<?> type) {
+        if (null != type && (type.isPrimitive() || Modifier.isFinal(type.getModifiers()))) {
+            return this.objectMapper.writerFor(type);
+        }
+
+        return this.objectMapper.writer();
+    }
+
+    public JavaType constructType(Type type) {
+        return this.objectMapper.getTypeFactory().constructType(type);
+    }
+
+    public ObjectReader readerFor(Class<?> type) {
+        return this.objectMapper.readerFor(type);
+    }
+
+    public ObjectReader readerFor(JavaType type) {
+        return this.objectMapper.readerFor(type);
+    }
+
+    // =================================================================================================================
+
+    public String encode(ObjectWriter writer, Object source) {
+        try {
+            return writer.writeValueAsString(source);
+        } catch (Exception e) {
+            throw new HRpcException("handle the Bean to json Str exception", e);
+        }
+    }
+
+    /**
+     * encode the payload into a pooled buffer, serialized exactly once, without the intermediate String
+     *
+     * @param writer {@link ObjectWriter}
+     * @param source the source
+     * @return the UTF-8 JSON bytes
+     */
+    public byte[] encodeToBytes(ObjectWriter writer, Object source) {
+        PooledByteBuffer buffer = this.buffers.poll();
+        if (null == buffer) {
+            buffer = new PooledByteBuffer();
+        }
+        try {
+            writer.writeValue(buffer, source);
+            return buffer.toByteArray();
+        } catch (Exception e) {
+            throw new HRpcException("handle the Bean to json bytes exception", e);
+        } finally {
+            buffer.reset();
+            if (buffer.capacity() <= POOLED_BUFFER_LIMIT) {
+                // drop it if the pool is full
+                this.buffers.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * encode the payload into a pooled buffer, unless the last payload of the method was streamed
+     *
+     * @param writer {@link ObjectWriter}
+     * @param source the source
+     * @param hint   the size hint of the method's payload
+     * @return the UTF-8 JSON bytes, or null if the last payload exceeded the {@link #POOLED_BUFFER_LIMIT}, stream it instead
+     */
+    public byte[] encodeToBytes(ObjectWriter writer, Object source, PayloadSizeHint hint) {
+        if (hint.isLarge()) {
+            return null;
+        }
+        byte[] bytes = this.encodeToBytes(writer, source);
+        hint.record(bytes.length);
+
+        return bytes;
+    }
+
+    /**
+     * encode to the target stream directly, and record the streamed size, the stream is not closed
+     *
+     * @param writer {@link ObjectWriter}
+     * @param source the source
+     * @param out    the target stream
+     * @param hint   the size hint of the method's payload
+     * @throws IOException
+     */
+    public void encode(ObjectWriter writer, Object source, OutputStream out, PayloadSizeHint hint) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        this.encode(writer, source, counting);
+        hint.record(counting.count);
+    }
+
+    /**
+     * encode to the target stream directly, the stream is not closed
+     *
+     * @param writer {@link ObjectWriter}
+     * @param source the source
+     * @param out    the target stream
+     * @throws IOException
+     */
+    public void encode(ObjectWriter writer, Object source, OutputStream out) throws IOException {
+        writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, source);
+    }
+
+    /**
+     * decode from the response stream directly, the body is never materialized as the String
+     *
+     * @param reader {@link ObjectReader}
+     * @param in     the response stream
+     * @param <T>    the target type
+     * @return the decoded body
+     */
+    public <T> T decode(ObjectReader reader, InputStream in) {
+        try {
+            return reader.readValue(in);
+        } catch (Exception e) {
+            throw new HRpcException("parse the json stream to Bean exception", e);
+        }
+    }
+
+    public <T> T decode(ObjectReader reader, byte[] json) {
+        try {
+            return reader.readValue(json);
+        } catch (Exception e) {
+            throw new HRpcException("parse the json bytes to Bean exception", e);
+        }
+    }
+
+    public <T> T decode(ObjectReader reader, String json) {
+        try {
+            return reader.readValue(json);
+        } catch (Exception e) {
+            throw new HRpcException("parse the json Str to Bean exception", e);
+        }
+    }
+
+    // =================================================================================================================
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+}
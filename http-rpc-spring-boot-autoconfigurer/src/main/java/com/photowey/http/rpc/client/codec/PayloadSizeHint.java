@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.codec;
+
+/**
+ * PayloadSizeHint
+ * <p>
+ * the serialized size of the last payload of a method, decides the path of the next one up front:
+ * the small payload is serialized into the pooled buffer with the known content length,
+ * the payload of a method known to be large is written to the outgoing stream directly
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class PayloadSizeHint {
+
+    private volatile long lastSize;
+
+    /**
+     * @return true if the last payload exceeded the {@link JsonCodec#POOLED_BUFFER_LIMIT}
+     */
+    public boolean isLarge() {
+        return this.lastSize > JsonCodec.POOLED_BUFFER_LIMIT;
+    }
+
+    public void record(long size) {
+        this.lastSize = size;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.codec;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * PooledByteBuffer
+ * <p>
+ * the reusable growable buffer of the serialized payload, borrowed from the pool of the {@link JsonCodec},
+ * the buffer grown over the pooled limit is dropped after use, so the pool never pins the large arrays
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class PooledByteBuffer extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    @Override
+    public void write(int b) {
+        this.ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.ensureCapacity(this.count + len);
+        System.arraycopy(b, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length << 1));
+        }
+    }
+
+    void reset() {
+        this.count = 0;
+    }
+
+    int capacity() {
+        return this.buffer.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+}
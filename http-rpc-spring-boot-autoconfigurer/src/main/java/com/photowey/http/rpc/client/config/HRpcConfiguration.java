@@ -15,21 +15,38 @@
  */
 package com.photowey.http.rpc.client.config;
 
+import com.photowey.http.rpc.client.binding.ClientRequest;
 import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.UrlTemplate;
+import com.photowey.http.rpc.client.cluster.ClusterEngine;
+import com.photowey.http.rpc.client.cluster.health.RouteHealthManager;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.cluster.strategy.ClusterStrategySelector;
 import com.photowey.http.rpc.client.context.RequestContext;
 import com.photowey.http.rpc.client.context.RequestContextFactory;
 import com.photowey.http.rpc.client.interceptor.RequestInterceptor;
 import com.photowey.http.rpc.client.parameter.ParameterProcessor;
 import com.photowey.http.rpc.client.parser.AnnotationParser;
+import com.photowey.http.rpc.client.properties.AsyncProperties;
 import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.client.properties.ServiceInfo;
 import com.photowey.http.rpc.client.request.executor.RequestExecutor;
+import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import com.photowey.http.rpc.core.enums.ExecutionModeEnum;
 import com.photowey.http.rpc.core.enums.ExecutorEnum;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.model.RemoteInfo;
 import com.photowey.http.rpc.core.util.HRpcUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.core.OrderComparator;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.X509TrustManager;
@@ -38,6 +55,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HRpc Client Configuration
@@ -47,7 +70,16 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 1.0.0
  */
 @Configuration
-public class HRpcConfiguration {
+public class HRpcConfiguration implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HRpcConfiguration.class);
+
+    /**
+     * the custom async completion executor bean name
+     *
+     * @since 1.1.0
+     */
+    public static final String HRPC_ASYNC_EXECUTOR = "hrpcAsyncExecutor";
 
     @Autowired
     private HRpcClientProperties hrpcClientProperties;
@@ -67,6 +99,38 @@ public class HRpcConfiguration {
     private List<RequestInterceptor> interceptorChains;
     @Autowired
     private List<AnnotationParser> annotationParsers;
+    @Autowired
+    private ClusterEngine clusterEngine;
+    @Autowired
+    private RouteHealthManager routeHealthManager;
+    @Autowired
+    private JsonCodec jsonCodec;
+    @Autowired(required = false)
+    @Qualifier(HRPC_ASYNC_EXECUTOR)
+    private Executor asyncExecutor;
+    /**
+     * the default async completion executor, created if the custom executor absent
+     */
+    private ExecutorService defaultAsyncExecutor;
+    /**
+     * the virtual thread per task executor, only in the {@link ExecutionModeEnum#VIRTUAL_THREADS} mode
+     *
+     * @since 1.1.0
+     */
+    private ExecutorService virtualThreadExecutor;
+
+    /**
+     * the parameter processors sorted once
+     *
+     * @since 1.1.0
+     */
+    private ParameterProcessor[] parameterProcessors;
+    /**
+     * the request interceptors sorted once, respect the {@link org.springframework.core.annotation.Order} and {@link org.springframework.core.Ordered}
+     *
+     * @since 1.1.0
+     */
+    private RequestInterceptor[] interceptors;
 
     // =================================================================================================================
 
@@ -76,6 +140,135 @@ public class HRpcConfiguration {
         return hrpcClientProperties;
     }
 
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        List<ParameterProcessor> processors = new ArrayList<>(this.parameterProcessorChains);
+        OrderComparator.sort(processors);
+        this.parameterProcessors = processors.toArray(new ParameterProcessor[0]);
+
+        List<RequestInterceptor> interceptors = new ArrayList<>(this.interceptorChains);
+        AnnotationAwareOrderComparator.sort(interceptors);
+        this.interceptors = interceptors.toArray(new RequestInterceptor[0]);
+
+        if (ExecutionModeEnum.VIRTUAL_THREADS.equals(this.hrpcClientProperties.getExecutionMode())) {
+            this.virtualThreadExecutor = this.createVirtualThreadExecutor();
+        }
+        if (null == this.asyncExecutor) {
+            this.defaultAsyncExecutor = null != this.virtualThreadExecutor
+                    ? this.virtualThreadExecutor
+                    : this.createAsyncExecutor(this.hrpcClientProperties.getAsync());
+            this.asyncExecutor = this.defaultAsyncExecutor;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (null != this.defaultAsyncExecutor) {
+            this.defaultAsyncExecutor.shutdown();
+        }
+        if (null != this.virtualThreadExecutor && this.virtualThreadExecutor != this.defaultAsyncExecutor) {
+            this.virtualThreadExecutor.shutdown();
+        }
+    }
+
+    /**
+     * create the virtual thread per task executor reflectively, so the framework still runs on the JDK 8
+     *
+     * @return {@link ExecutorService}, or null if the JDK does not support
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            // the JDK before 21, or the preview features are not enabled
+            log.warn("the virtual threads are not supported by the current JDK:[{}], fall back to the platform threads", System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    private ThreadPoolExecutor createAsyncExecutor(AsyncProperties async) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                async.getCorePoolSize(),
+                Math.max(async.getCorePoolSize(), async.getMaxPoolSize()),
+                async.getKeepAlive(), TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(async.getQueueCapacity()),
+                new CustomizableThreadFactory(async.getThreadNamePrefix()),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * the executor to complete the CompletableFuture/CompletionStage methods
+     *
+     * @return {@link Executor}
+     * @since 1.1.0
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * the virtual thread per task executor for the blocking I/O of the executors, such as: the OkHttp dispatcher
+     *
+     * @return {@link ExecutorService}, or null if not in the {@link ExecutionModeEnum#VIRTUAL_THREADS} mode
+     * @since 1.1.0
+     */
+    public ExecutorService getVirtualThreadExecutor() {
+        return virtualThreadExecutor;
+    }
+
+    // =================================================================================================================
+
+    /**
+     * determine the config service info
+     *
+     * @param service the target service
+     * @return {@link ServiceInfo}
+     * @since 1.1.0
+     */
+    public ServiceInfo determineServiceInfo(String service) {
+        List<ServiceInfo> services = this.hrpcClientProperties.getServices();
+        if (HRpcUtils.isNotEmpty(services)) {
+            for (ServiceInfo serviceInfo : services) {
+                if (serviceInfo.getService().equals(service)) {
+                    return serviceInfo;
+                }
+            }
+        }
+
+        throw new HRpcException("not found the service:[{}] config, need config the hrpc.client.services", service);
+    }
+
+    /**
+     * determine the config cluster strategy selector
+     *
+     * @return {@link ClusterStrategySelector}
+     * @since 1.1.0
+     */
+    public ClusterStrategySelector determineClusterStrategySelector() {
+        ClusterStrategyEnum clusterStrategy = this.hrpcClientProperties.getClusterStrategy();
+        ClusterStrategySelector clusterStrategySelector = this.clusterEngine.determineClusterStrategy(clusterStrategy);
+        if (null == clusterStrategySelector) {
+            throw new HRpcException("not found the cluster strategy:[{}] selector", clusterStrategy);
+        }
+
+        return clusterStrategySelector;
+    }
+
+    /**
+     * the route health manager in cluster mode
+     *
+     * @return {@link RouteHealthManager}
+     * @since 1.1.0
+     */
+    public RouteHealthManager getRouteHealthManager() {
+        return routeHealthManager;
+    }
+
     // =================================================================================================================
 
     public HostnameVerifier getHostnameVerifier() {
@@ -92,6 +285,10 @@ public class HRpcConfiguration {
         return requestContextFactory;
     }
 
+    public JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
+
     // =================================================================================================================
 
     public List<ParameterProcessor> getParameterProcessorChains() {
@@ -120,18 +317,16 @@ public class HRpcConfiguration {
     // =================================================================================================================
 
     public List<RequestInterceptor> getInterceptorChains() {
-        return interceptorChains;
+        return Collections.unmodifiableList(Arrays.asList(this.interceptors));
     }
 
     // =================================================================================================================
 
     public MethodSignature handleAll(MethodSignature methodSignature, Method method) {
         Parameter[] parameters = method.getParameters();
-        List<Parameter> annotationSets = new ArrayList<>(Arrays.asList(parameters));
-        for (int i = 0, size = annotationSets.size(); i < size; i++) {
+        for (int i = 0; i < parameters.length; i++) {
             Parameter parameter = parameters[i];
-            Annotation[] annotations = parameter.getAnnotations();
-            if (HRpcUtils.isEmpty(annotations)) {
+            if (HRpcUtils.isEmpty(parameter.getAnnotations())) {
                 throw new HRpcException("the parameter:[{}] must be modified by annotation, such as @RequestParam", parameter.getName());
             }
             this.handleAll(parameter, i, methodSignature);
@@ -143,32 +338,51 @@ public class HRpcConfiguration {
     // =================================================================================================================
 
     private void handleAll(Parameter parameter, Integer paramIndex, MethodSignature methodSignature) {
-        OrderComparator.sort(this.parameterProcessorChains);
-        for (ParameterProcessor parameterProcessorChain : this.parameterProcessorChains) {
-            parameterProcessorChain.handleParameter(parameter, paramIndex, methodSignature);
+        for (ParameterProcessor parameterProcessor : this.parameterProcessors) {
+            parameterProcessor.handleParameter(parameter, paramIndex, methodSignature);
         }
     }
 
     // =================================================================================================================
 
-    public void interceptAll(MethodSignature methodSignature, RequestContext context) {
-        List<RequestInterceptor> interceptorChains = this.getInterceptorChains();
-        OrderComparator.sort(this.interceptorChains);
-        for (RequestInterceptor interceptor : interceptorChains) {
+    /**
+     * determine the interceptor pipeline of the target method, computed once per method
+     *
+     * @param service the HRpcClient service
+     * @param method  the target method
+     * @return the matching interceptors, keep the order
+     * @since 1.1.0
+     */
+    public RequestInterceptor[] determineInterceptors(String service, Method method) {
+        List<RequestInterceptor> pipeline = new ArrayList<>(this.interceptors.length);
+        for (RequestInterceptor interceptor : this.interceptors) {
+            if (interceptor.supports(service, method)) {
+                pipeline.add(interceptor);
+            }
+        }
+
+        return pipeline.toArray(new RequestInterceptor[0]);
+    }
+
+    public void interceptAll(RequestInterceptor[] interceptors, ClientRequest request, RequestContext context) {
+        if (0 == interceptors.length) {
+            return;
+        }
+        for (RequestInterceptor interceptor : interceptors) {
             interceptor.intercept(context);
         }
         // 处理附加的属性
-        this.handleQueries(methodSignature, context);
+        this.handleQueries(request, context);
         // 处理附加的 header
-        this.handleHeaders(methodSignature, context);
+        this.handleHeaders(request, context);
     }
 
     // =================================================================================================================
 
-    private void handleHeaders(MethodSignature methodSignature, RequestContext context) {
+    private void handleHeaders(ClientRequest request, RequestContext context) {
         Map<String, Object> headers = context.getHeaders();
         Set<Map.Entry<String, Object>> entries = headers.entrySet();
-        Map<String, String> headerValues = methodSignature.getHeaderValues();
+        Map<String, String> headerValues = request.getHeaderValues();
         for (Map.Entry<String, Object> entry : entries) {
             String key = entry.getKey();
             String valueStr = String.valueOf(entry.getValue());
@@ -176,18 +390,20 @@ public class HRpcConfiguration {
         }
     }
 
-    private void handleQueries(MethodSignature methodSignature, RequestContext context) {
+    private void handleQueries(ClientRequest request, RequestContext context) {
         Map<String, Object> queries = context.getAttributes();
+        if (queries.isEmpty()) {
+            return;
+        }
         Set<Map.Entry<String, Object>> entries = queries.entrySet();
-        String url = methodSignature.getUrl();
-        StringBuilder builder = new StringBuilder(url);
+        String url = request.getUrl();
+        StringBuilder builder = new StringBuilder(url.length() + (queries.size() << 4)).append(url);
+        boolean hasQuery = url.indexOf('?') >= 0;
         for (Map.Entry<String, Object> entry : entries) {
-            String key = entry.getKey();
-            String valueStr = String.valueOf(entry.getValue());
-            HRpcUtils.populateQuery(builder, key, valueStr);
+            hasQuery = UrlTemplate.appendQuery(builder, entry.getKey(), entry.getValue(), hasQuery);
         }
 
-        methodSignature.setUrl(builder.toString());
+        request.setUrl(builder.toString());
     }
 
     // =================================================================================================================
@@ -15,6 +15,8 @@
  */
 package com.photowey.http.rpc.client.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.photowey.http.rpc.client.codec.JsonCodec;
 import com.photowey.http.rpc.client.context.DefaultRequestContextFactory;
 import com.photowey.http.rpc.client.context.RequestContextFactory;
 import com.photowey.http.rpc.client.interceptor.DefaultRequestInterceptor;
@@ -26,8 +28,12 @@ import com.photowey.http.rpc.client.request.okhttp.IOkHttpRequestExecutor;
 import com.photowey.http.rpc.client.request.okhttp.OkHttpRequestExecutor;
 import com.photowey.http.rpc.client.request.trust.HostnameVerifierImpl;
 import com.photowey.http.rpc.client.request.trust.X509TrustManagerImpl;
+import com.photowey.http.rpc.client.request.webclient.IWebClientRequestExecutor;
+import com.photowey.http.rpc.client.request.webclient.WebClientRequestExecutor;
+import com.photowey.http.rpc.core.util.JsonUtils;
 import okhttp3.OkHttpClient;
 import org.apache.http.HttpHost;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -70,6 +76,19 @@ public class HRpcConfigurer {
         return new X509TrustManagerImpl();
     }
 
+    /**
+     * the JSON codec, use the {@link ObjectMapper} of the Spring context if unique
+     *
+     * @param objectMapper the {@link ObjectMapper} provider
+     * @return {@link JsonCodec}
+     * @since 1.1.0
+     */
+    @Bean
+    @ConditionalOnMissingBean(JsonCodec.class)
+    public JsonCodec jsonCodec(ObjectProvider<ObjectMapper> objectMapper) {
+        return new JsonCodec(objectMapper.getIfUnique(JsonUtils::getInstance));
+    }
+
     @Bean
     @ConditionalOnMissingBean(RequestInterceptor.class)
     public RequestInterceptor requestInterceptor() {
@@ -101,4 +120,29 @@ public class HRpcConfigurer {
     public IHttpClientRequestExecutor httpClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
         return new HttpClientRequestExecutor(hrpcConfiguration);
     }
+
+    /**
+     * the non-blocking executor of the Mono<T> and Flux<T> methods, only if the spring-webflux and the reactor-netty present
+     *
+     * @since 1.1.0
+     */
+    @Configuration
+    @ConditionalOnClass(name = {
+            "org.springframework.web.reactive.function.client.WebClient",
+            "reactor.netty.http.client.HttpClient"
+    })
+    static class WebClientRequestExecutorConfigurer {
+
+        /**
+         * custom define the WebClientRequestExecutor If necessary for Sub-Class
+         *
+         * @param hrpcConfiguration {@link HRpcConfiguration}
+         * @return {@link IWebClientRequestExecutor}
+         */
+        @Bean
+        @ConditionalOnMissingBean(IWebClientRequestExecutor.class)
+        public IWebClientRequestExecutor webClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
+            return new WebClientRequestExecutor(hrpcConfiguration);
+        }
+    }
 }
@@ -91,7 +91,7 @@ public class RequestContext implements Attributes {
     // ==================================================================== HEADER
 
     public <T> void setHeader(String key, T value) {
-        this.queries.put(key, value);
+        this.headers.put(key, value);
     }
 
     public Map<String, Object> getHeaders() {
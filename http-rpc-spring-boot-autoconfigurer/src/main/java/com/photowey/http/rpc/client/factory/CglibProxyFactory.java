@@ -48,7 +48,10 @@ public class CglibProxyFactory implements ProxyFactory {
     public <T> T buildProxy(String targetProxy, Class<T>[] interfaces) throws HRpcException {
         Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(interfaces[0]);
-        enhancer.setCallback(new CglibInvokerInvocationHandler(this.httpHandlers));
+        CglibInvokerInvocationHandler invocationHandler = new CglibInvokerInvocationHandler(this.httpHandlers);
+        invocationHandler.prepare(interfaces);
+        enhancer.setCallbackFilter(invocationHandler.getCallbackFilter());
+        enhancer.setCallbacks(invocationHandler.getCallbacks());
         return (T) enhancer.create();
     }
 }
@@ -46,10 +46,12 @@ public class JdkProxyFactory implements ProxyFactory {
 
     @Override
     public <T> T buildProxy(String targetProxy, Class<T>[] interfaces) throws HRpcException {
+        JdkInvokerInvocationHandler invocationHandler = new JdkInvokerInvocationHandler(httpHandlers);
+        invocationHandler.prepare(interfaces);
         return (T) Proxy.newProxyInstance(
                 Thread.currentThread().getContextClassLoader(),
                 interfaces,
-                new JdkInvokerInvocationHandler(httpHandlers)
+                invocationHandler
         );
     }
 }
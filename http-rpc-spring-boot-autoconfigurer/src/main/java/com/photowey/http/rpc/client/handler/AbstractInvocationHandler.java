@@ -16,11 +16,16 @@
 package com.photowey.http.rpc.client.handler;
 
 import com.photowey.http.rpc.client.request.handler.HttpHandler;
+import com.photowey.http.rpc.client.request.handler.HttpInvoker;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.util.StringFormatUtils;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AbstractInvocationHandler
@@ -37,11 +42,49 @@ public abstract class AbstractInvocationHandler {
 
     protected List<HttpHandler> httpHandlers;
 
+    /**
+     * the Method -> prepared invoker dispatch table, built once when the proxy is created
+     *
+     * @since 1.1.0
+     */
+    protected Map<Method, HttpInvoker> invokers = Collections.emptyMap();
+
     public AbstractInvocationHandler(List<HttpHandler> httpHandlers) {
         this.httpHandlers = httpHandlers;
     }
 
+    /**
+     * prepare the http methods of the interfaces when the proxy is created,
+     * so the annotation parsing and the parameter binding are not paid on the first invocation,
+     * and the dispatch is a single table lookup
+     *
+     * @param interfaces the HRpcClient interfaces
+     * @since 1.1.0
+     */
+    public void prepare(Class<?>[] interfaces) {
+        Map<Method, HttpInvoker> invokers = new HashMap<>();
+        for (Class<?> target : interfaces) {
+            for (Method method : target.getMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                for (HttpHandler httpHandler : this.httpHandlers) {
+                    if (httpHandler.supports(method)) {
+                        invokers.put(method, httpHandler.prepare(target, method));
+                        break;
+                    }
+                }
+            }
+        }
+
+        this.invokers = Collections.unmodifiableMap(invokers);
+    }
+
     public Object doIntercept(Object proxy, Method method, Object[] args) throws Throwable {
+        HttpInvoker invoker = this.invokers.get(method);
+        if (null != invoker) {
+            return invoker.invoke(args);
+        }
         for (HttpHandler httpHandler : this.httpHandlers) {
             if (httpHandler.supports(method)) {
                 return httpHandler.handleRequest(proxy.getClass(), method, args);
@@ -49,4 +92,29 @@ public abstract class AbstractInvocationHandler {
         }
         throw new HRpcException(StringFormatUtils.format("this method:[{}] not modified by annotation, such as @HttpGet~", method.getName()));
     }
+
+    /**
+     * handle the {@link Object} methods, such as: toString, hashCode and equals
+     *
+     * @param proxy  the proxy
+     * @param method the Object method
+     * @param args   the args
+     * @return the result
+     * @since 1.1.0
+     */
+    protected Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        int parameterCount = method.getParameterCount();
+        if (TO_STRING.equals(methodName) && parameterCount == 0) {
+            return proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+        if (HASH_CODE.equals(methodName) && parameterCount == 0) {
+            return System.identityHashCode(proxy);
+        }
+        if (EQUALS.equals(methodName) && parameterCount == 1) {
+            return proxy == args[0];
+        }
+
+        throw new HRpcException(StringFormatUtils.format("not support the Object method:[{}]", methodName));
+    }
 }
@@ -16,14 +16,17 @@
 package com.photowey.http.rpc.client.handler;
 
 import com.photowey.http.rpc.client.request.handler.HttpHandler;
+import com.photowey.http.rpc.client.request.handler.HttpInvoker;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
 
 import java.lang.reflect.Method;
-import java.util.List;
+import java.util.*;
 
 /**
- * JdkInvokerInvocationHandler
+ * CglibInvokerInvocationHandler
  *
  * @author WcJun
  * @date 2020/08/08
@@ -31,25 +34,63 @@ import java.util.List;
  */
 public class CglibInvokerInvocationHandler extends AbstractInvocationHandler implements MethodInterceptor {
 
+    /**
+     * the {@link Object} methods callback index
+     */
+    private static final int OBJECT_METHOD_INDEX = 0;
+    /**
+     * the fallback callback index, dispatch by {@link #doIntercept(Object, Method, Object[])}
+     */
+    private static final int FALLBACK_INDEX = 1;
+
+    /**
+     * the callbacks indexed by method ordinal, the index is resolved by the {@link CallbackFilter} once per method
+     *
+     * @since 1.1.0
+     */
+    private Callback[] callbacks = new Callback[]{this, this};
+    private Map<Method, Integer> callbackIndexes = Collections.emptyMap();
+
     public CglibInvokerInvocationHandler(List<HttpHandler> httpHandlers) {
         super(httpHandlers);
     }
 
+    @Override
+    public void prepare(Class<?>[] interfaces) {
+        super.prepare(interfaces);
+
+        List<Callback> callbacks = new ArrayList<>(this.invokers.size() + 2);
+        callbacks.add((MethodInterceptor) (proxy, method, args, methodProxy) -> this.invokeObjectMethod(proxy, method, args));
+        callbacks.add(this);
+        Map<Method, Integer> callbackIndexes = new HashMap<>(this.invokers.size() << 1);
+        for (Map.Entry<Method, HttpInvoker> entry : this.invokers.entrySet()) {
+            HttpInvoker invoker = entry.getValue();
+            callbackIndexes.put(entry.getKey(), callbacks.size());
+            callbacks.add((MethodInterceptor) (proxy, method, args, methodProxy) -> invoker.invoke(args));
+        }
+
+        this.callbacks = callbacks.toArray(new Callback[0]);
+        this.callbackIndexes = Collections.unmodifiableMap(callbackIndexes);
+    }
+
+    public Callback[] getCallbacks() {
+        return callbacks;
+    }
+
+    public CallbackFilter getCallbackFilter() {
+        return method -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return OBJECT_METHOD_INDEX;
+            }
+
+            return this.callbackIndexes.getOrDefault(method, FALLBACK_INDEX);
+        };
+    }
+
     @Override
     public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-        String methodName = method.getName();
-        Class<?>[] parameterTypes = method.getParameterTypes();
         if (method.getDeclaringClass() == Object.class) {
-            return method.invoke(proxy, args);
-        }
-        if (TO_STRING.equals(methodName) && parameterTypes.length == 0) {
-            return proxy.toString();
-        }
-        if (HASH_CODE.equals(methodName) && parameterTypes.length == 0) {
-            return proxy.hashCode();
-        }
-        if (EQUALS.equals(methodName) && parameterTypes.length == 1) {
-            return proxy.equals(args[0]);
+            return this.invokeObjectMethod(proxy, method, args);
         }
 
         return this.doIntercept(proxy, method, args);
@@ -36,6 +36,10 @@ public class JdkInvokerInvocationHandler extends AbstractInvocationHandler imple
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return this.invokeObjectMethod(proxy, method, args);
+        }
+
         return this.doIntercept(proxy, method, args);
     }
 }
@@ -16,7 +16,8 @@
 package com.photowey.http.rpc.client.interceptor;
 
 import com.photowey.http.rpc.client.context.RequestContext;
-import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
 
 /**
  * RequestInterceptor Root-Interface
@@ -36,4 +37,10 @@ public class DefaultRequestInterceptor implements RequestInterceptor {
     public void intercept(RequestContext context) {
 
     }
+
+    @Override
+    public boolean supports(String service, Method method) {
+        // nothing to do, keep out of the pipeline
+        return false;
+    }
 }
@@ -18,6 +18,8 @@ package com.photowey.http.rpc.client.interceptor;
 import com.photowey.http.rpc.client.context.RequestContext;
 import org.springframework.core.Ordered;
 
+import java.lang.reflect.Method;
+
 /**
  * 请求拦截器-根接口
  *
@@ -33,4 +35,16 @@ public interface RequestInterceptor extends Ordered {
      * @param context 请求附加上下文
      */
     void intercept(RequestContext context);
+
+    /**
+     * 是否拦截目标服务的目标方法, 每个方法只判断一次
+     *
+     * @param service the {@literal @}HRpcClient service
+     * @param method  the target method
+     * @return {@link Boolean}
+     * @since 1.1.0
+     */
+    default boolean supports(String service, Method method) {
+        return true;
+    }
 }
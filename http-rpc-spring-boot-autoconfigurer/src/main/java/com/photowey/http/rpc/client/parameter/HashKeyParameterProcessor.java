@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.parameter;
+
+import com.photowey.http.rpc.client.annotation.ParameterProcessorMarker;
+import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.core.annotation.HashKey;
+import com.photowey.http.rpc.core.exception.HRpcException;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * {@literal @}HashKey Annotation ParameterProcessor
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see HashKey
+ * @since 1.1.0
+ */
+@ParameterProcessorMarker
+public class HashKeyParameterProcessor implements ParameterProcessor {
+
+    private static final Class<HashKey> ANNOTATION = HashKey.class;
+
+    @Override
+    public int getOrder() {
+        return 4;
+    }
+
+    @Override
+    public void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature) {
+        if (!parameter.isAnnotationPresent(ANNOTATION)) {
+            return;
+        }
+        if (null != methodSignature.getHashKeyIndex()) {
+            throw new HRpcException("the @HashKey index:[{}]'s param is duplicated, only one hash key is supported", paramIndex);
+        }
+        methodSignature.setHashKeyIndex(paramIndex);
+    }
+}
@@ -25,9 +25,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.PathVariable;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Parameter;
-import java.util.*;
+import java.util.Map;
 
 /**
  * {@literal @}PathVariable Annotation ParameterProcessor
@@ -54,28 +53,26 @@ public class PathVariableParameterProcessor implements ParameterProcessor {
         this.handleParameter(parameter, paramIndex, methodSignature, ANNOTATION);
     }
 
-    private <T extends Annotation> void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<T> clazz) {
-        Annotation[] annotations = parameter.getAnnotations();
-
-        Set<Annotation> annotationSets = new HashSet<>(Arrays.asList(annotations));
-        List<Annotation> targets = HRpcUtils.toTarget(annotationSets, clazz);
+    private void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<PathVariable> clazz) {
+        PathVariable annotation = parameter.getAnnotation(clazz);
         if (log.isDebugEnabled()) {
-            log.debug("the path annotation order:[{}], size is:[{}]", this.getOrder(), targets.size());
+            log.debug("the path annotation order:[{}], present:[{}]", this.getOrder(), null != annotation);
+        }
+        if (null == annotation) {
+            return;
         }
-        for (Annotation annotation : targets) {
-            String alias = ANNOTATION.cast(annotation).value();
-            String name = parameter.getName();
-            // Use parameter name as alisa
-            if (null == alias || "".equals(alias.trim())) {
-                alias = name;
-                methodSignature.getNoAlisaPathIndex().put(alias, paramIndex);
+        String alias = annotation.value();
+        String name = parameter.getName();
+        // Use parameter name as alisa
+        if (null == alias || "".equals(alias.trim())) {
+            alias = name;
+            methodSignature.getNoAlisaPathIndex().put(alias, paramIndex);
+        } else {
+            if (name.contains(HRpcConstants.COMPILE_ARG_PREFIX) && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
+                // arg + index
+                this.handleAlisa(paramIndex, methodSignature, alias, false);
             } else {
-                if (name.contains(HRpcConstants.COMPILE_ARG_PREFIX) && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
-                    // arg + index
-                    this.handleAlisa(paramIndex, methodSignature, alias, false);
-                } else {
-                    this.handleAlisa(paramIndex, methodSignature, alias, true);
-                }
+                this.handleAlisa(paramIndex, methodSignature, alias, true);
             }
         }
     }
@@ -16,17 +16,10 @@
 package com.photowey.http.rpc.client.parameter;
 
 import com.photowey.http.rpc.client.annotation.ParameterProcessorMarker;
-import com.photowey.http.rpc.client.binding.ClientMethod;
 import com.photowey.http.rpc.client.binding.MethodSignature;
-import com.photowey.http.rpc.core.util.HRpcUtils;
 import org.springframework.web.bind.annotation.RequestBody;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Parameter;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 /**
  * {@literal @}RequestBody Annotation ParameterProcessor
@@ -51,11 +44,8 @@ public class RequestBodyParameterProcessor implements ParameterProcessor {
         this.handleParameter(parameter, paramIndex, methodSignature, ANNOTATION);
     }
 
-    private <T extends Annotation> void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<T> clazz) {
-        Annotation[] annotations = parameter.getAnnotations();
-        Set<Annotation> annotationSets = new HashSet<>(Arrays.asList(annotations));
-        List<Annotation> targets = HRpcUtils.toTarget(annotationSets, clazz);
-        if (HRpcUtils.isNotEmpty(targets)) {
+    private void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<RequestBody> clazz) {
+        if (parameter.isAnnotationPresent(clazz)) {
             Class<?> requestBody = parameter.getType();
             methodSignature.setRequestBodyType(requestBody);
             methodSignature.setBodyIndex(paramIndex);
@@ -20,12 +20,10 @@ import com.photowey.http.rpc.client.binding.MethodSignature;
 import com.photowey.http.rpc.core.constant.HRpcConstants;
 import com.photowey.http.rpc.core.enums.TargetEnum;
 import com.photowey.http.rpc.core.util.HRpcUtils;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.RequestHeader;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Parameter;
-import java.util.*;
+import java.util.Map;
 
 /**
  * {@literal @}PathVariable Annotation ParameterProcessor
@@ -50,26 +48,23 @@ public class RequestHeaderParameterProcessor implements ParameterProcessor {
         this.handleParameter(parameter, paramIndex, methodSignature, ANNOTATION);
     }
 
-    private <T extends Annotation> void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<T> clazz) {
-        Annotation[] annotations = parameter.getAnnotations();
-        Set<Annotation> annotationSets = new HashSet<>(Arrays.asList(annotations));
-        List<Annotation> targets = HRpcUtils.toTarget(annotationSets, clazz);
-        if (!CollectionUtils.isEmpty(targets)) {
-            for (Annotation annotation : targets) {
-                String alias = ANNOTATION.cast(annotation).value();
-                String name = parameter.getName();
-                // Use parameter name as alisa
-                if (null == alias || "".equals(alias.trim())) {
-                    alias = name;
-                    methodSignature.getNoAlisaHeaderIndex().put(alias, paramIndex);
-                } else {
-                    if (name.contains(HRpcConstants.COMPILE_ARG_PREFIX) && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
-                        // arg + index
-                        this.handleAlisa(paramIndex, methodSignature, alias, false);
-                    } else {
-                        this.handleAlisa(paramIndex, methodSignature, alias, true);
-                    }
-                }
+    private void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<RequestHeader> clazz) {
+        RequestHeader annotation = parameter.getAnnotation(clazz);
+        if (null == annotation) {
+            return;
+        }
+        String alias = annotation.value();
+        String name = parameter.getName();
+        // Use parameter name as alisa
+        if (null == alias || "".equals(alias.trim())) {
+            alias = name;
+            methodSignature.getNoAlisaHeaderIndex().put(alias, paramIndex);
+        } else {
+            if (name.contains(HRpcConstants.COMPILE_ARG_PREFIX) && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
+                // arg + index
+                this.handleAlisa(paramIndex, methodSignature, alias, false);
+            } else {
+                this.handleAlisa(paramIndex, methodSignature, alias, true);
             }
         }
     }
@@ -22,12 +22,10 @@ import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.util.HRpcUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Parameter;
-import java.util.*;
+import java.util.Map;
 
 /**
  * {@literal @}RequestParam Annotation ParameterProcessor
@@ -54,41 +52,38 @@ public class RequestParamParameterProcessor implements ParameterProcessor {
         this.handleParameter(parameter, paramIndex, methodSignature, ANNOTATION);
     }
 
-    private <T extends Annotation> void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<T> clazz) {
-        Annotation[] annotations = parameter.getAnnotations();
-        Set<Annotation> annotationSets = new HashSet<>(Arrays.asList(annotations));
-        List<Annotation> targets = HRpcUtils.toTarget(annotationSets, clazz);
+    private void handleParameter(Parameter parameter, Integer paramIndex, MethodSignature methodSignature, Class<RequestParam> clazz) {
+        RequestParam annotation = parameter.getAnnotation(clazz);
         if (log.isDebugEnabled()) {
-            log.info("the request params annotation order:[{}], size is:[{}]", this.getOrder(), targets.size());
+            log.debug("the request params annotation order:[{}], present:[{}]", this.getOrder(), null != annotation);
         }
         // handle @RequestParam
-        if (!CollectionUtils.isEmpty(targets)) {
-            for (Annotation annotation : targets) {
-                String alias = ANNOTATION.cast(annotation).value();
-                String name = parameter.getName();
-                Class<?> type = parameter.getType();
-                if (null == alias || "".equals(alias.trim())) {
-                    // check @RequestParam's value -> use parameter name as alisa if necessary
-                    // check Map.class
-                    if (type.equals(Map.class)) {
-                        methodSignature.getQueryMapIndex().add(paramIndex);
-                        if (log.isDebugEnabled()) {
-                            log.info("the request param type is MAP the index:[{}]", paramIndex);
-                        }
-                    } else {
-                        alias = name;
-                        methodSignature.getNoAliasParamIndex().put(alias, paramIndex);
-                    }
-                } else {
-                    // arg + index
-                    if (name.contains("arg") && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
-                        // arg + index
-                        // handle alisa and parameter mapping
-                        this.handleAlias(paramIndex, methodSignature, alias, false);
-                    } else {
-                        this.handleAlias(paramIndex, methodSignature, alias, true);
-                    }
+        if (null == annotation) {
+            return;
+        }
+        String alias = annotation.value();
+        String name = parameter.getName();
+        Class<?> type = parameter.getType();
+        if (null == alias || "".equals(alias.trim())) {
+            // check @RequestParam's value -> use parameter name as alisa if necessary
+            // check Map.class
+            if (type.equals(Map.class)) {
+                methodSignature.getQueryMapIndex().add(paramIndex);
+                if (log.isDebugEnabled()) {
+                    log.debug("the request param type is MAP the index:[{}]", paramIndex);
                 }
+            } else {
+                alias = name;
+                methodSignature.getNoAliasParamIndex().put(alias, paramIndex);
+            }
+        } else {
+            // arg + index
+            if (name.contains("arg") && null != HRpcUtils.extraction(name, TargetEnum.NUMBER)) {
+                // arg + index
+                // handle alisa and parameter mapping
+                this.handleAlias(paramIndex, methodSignature, alias, false);
+            } else {
+                this.handleAlias(paramIndex, methodSignature, alias, true);
             }
         }
     }
@@ -109,10 +104,10 @@ public class RequestParamParameterProcessor implements ParameterProcessor {
 
         Map<String, Integer> queries = methodSignature.getQueries();
         queries.put(alias, paramIndex);
-        String url = methodSignature.getUrl();
+        String url = methodSignature.getTemplate();
         StringBuilder builder = this.populateQuery(alias, alias, url);
 
-        methodSignature.setUrl(builder.toString());
+        methodSignature.setTemplate(builder.toString());
     }
 
     private StringBuilder populateQuery(String alias, String value, String url) {
@@ -16,13 +16,9 @@
 package com.photowey.http.rpc.client.parser;
 
 import com.photowey.http.rpc.client.annotation.HRpcClient;
-import com.photowey.http.rpc.client.cluster.ClusterEngine;
-import com.photowey.http.rpc.client.cluster.strategy.ClusterStrategySelector;
 import com.photowey.http.rpc.client.properties.HRpcClientProperties;
 import com.photowey.http.rpc.client.properties.ServiceInfo;
-import com.photowey.http.rpc.client.properties.ServiceRoute;
 import com.photowey.http.rpc.core.constant.HRpcConstants;
-import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
 import com.photowey.http.rpc.core.enums.HostTypeEnum;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import com.photowey.http.rpc.core.util.HRpcUtils;
@@ -45,18 +41,25 @@ public abstract class AbstractAnnotationParser implements ApplicationContextAwar
 
     public ApplicationContext applicationContext;
 
+    /**
+     * determine the host of the annotation
+     * <p>
+     * the {@link HostTypeEnum#DYNAMIC} host is selected from the service routes per invocation,
+     * so here only check the service config, and keep the annotation host as the fallback
+     *
+     * @param host       the annotation host
+     * @param hostType   the host type
+     * @param target     the target method
+     * @param properties the config properties {@link HRpcClientProperties}
+     * @return the annotation host
+     * @see com.photowey.http.rpc.client.binding.ClientMethod#determineRemoteAddress()
+     */
     public String determineHost(String host, HostTypeEnum hostType, Method target, HRpcClientProperties properties) {
         if (HostTypeEnum.DYNAMIC.equals(hostType)) {
             HRpcClient hRpcClient = target.getDeclaringClass().getAnnotation(HRpcClient.class);
             String targetService = hRpcClient.value();
             List<ServiceInfo> services = properties.getServices();
-            ServiceInfo serviceInfo = this.checkEmpty(targetService, services);
-            List<ServiceRoute> routes = serviceInfo.getRoutes();
-            ClusterEngine clusterEngine = this.applicationContext.getBean(ClusterEngine.class);
-            ClusterStrategyEnum clusterStrategy = properties.getClusterStrategy();
-            ClusterStrategySelector clusterStrategySelector = clusterEngine.determineClusterStrategy(clusterStrategy);
-            ServiceRoute targetRoute = clusterStrategySelector.select(routes);
-            host = StringFormatUtils.format(HRpcConstants.TEMPLATE_HOST, targetRoute.getIp(), targetRoute.getPort());
+            this.checkEmpty(targetService, services);
         }
 
         return host;
@@ -73,6 +73,6 @@ public class HttpDeleteAnnotationParser extends AbstractAnnotationParser impleme
         String uri = httpDelete.uri();
         uri = uri.replaceAll("^/*", "");
 
-        return new RemoteInfo(protocol, host, uri);
+        return new RemoteInfo(protocol, host, uri, hostType);
     }
 }
@@ -59,6 +59,6 @@ public class HttpGetAnnotationParser extends AbstractAnnotationParser implements
         String uri = httpGet.uri();
         uri = uri.replaceAll("^/*", "");
 
-        return new RemoteInfo(protocol, host, uri);
+        return new RemoteInfo(protocol, host, uri, hostType);
     }
 }
@@ -59,6 +59,6 @@ public class HttpPatchAnnotationParser extends AbstractAnnotationParser implemen
         String uri = httpPatch.uri();
         uri = uri.replaceAll("^/*", "");
 
-        return new RemoteInfo(protocol, host, uri);
+        return new RemoteInfo(protocol, host, uri, hostType);
     }
 }
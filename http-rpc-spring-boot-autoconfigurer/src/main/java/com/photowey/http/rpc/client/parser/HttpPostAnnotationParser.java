@@ -59,6 +59,6 @@ public class HttpPostAnnotationParser extends AbstractAnnotationParser implement
         String uri = httpPost.uri();
         uri = uri.replaceAll("^/*", "");
 
-        return new RemoteInfo(protocol, host, uri);
+        return new RemoteInfo(protocol, host, uri, hostType);
     }
 }
@@ -59,6 +59,6 @@ public class HttpPutAnnotationParser extends AbstractAnnotationParser implements
         String uri = httpPut.uri();
         uri = uri.replaceAll("^/*", "");
 
-        return new RemoteInfo(protocol, host, uri);
+        return new RemoteInfo(protocol, host, uri, hostType);
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the async completion executor config
+ * <p>
+ * hrpc.client.async.*
+ * <p>
+ * the CompletableFuture/CompletionStage methods are completed on the executor,
+ * define the bean named: {@code hrpcAsyncExecutor} to replace it
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class AsyncProperties implements Serializable {
+
+    private static final long serialVersionUID = -6372025593160318231L;
+
+    /**
+     * the core threads of the completion executor
+     */
+    private int corePoolSize = Runtime.getRuntime().availableProcessors();
+    /**
+     * the max threads of the completion executor
+     */
+    private int maxPoolSize = Runtime.getRuntime().availableProcessors() << 1;
+    /**
+     * the queue capacity of the completion executor, the caller runs the task if full
+     */
+    private int queueCapacity = 1024;
+    /**
+     * the keep-alive time of the idle thread, unit: seconds
+     */
+    private int keepAlive = 60;
+    /**
+     * the thread name prefix
+     */
+    private String threadNamePrefix = "hrpc-async-";
+
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    public void setCorePoolSize(int corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(int keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the circuit breaker config of a service, each route of the service has its own circuit breaker
+ * <p>
+ * hrpc.client.services[*].circuit-breaker.*
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class CircuitBreakerProperties implements Serializable {
+
+    private static final long serialVersionUID = 5281946203017755361L;
+
+    /**
+     * the circuit breaker enabled or not
+     */
+    private boolean enabled = false;
+    /**
+     * the sliding window size, the outcomes of the last calls
+     */
+    private int slidingWindowSize = 100;
+    /**
+     * the min calls in the sliding window before the rates are evaluated
+     */
+    private int minimumCalls = 20;
+    /**
+     * the failure rate to open the circuit breaker, unit: percent
+     */
+    private int failureRateThreshold = 50;
+    /**
+     * the slow call rate to open the circuit breaker, unit: percent, 100: only if all the calls are slow
+     */
+    private int slowCallRateThreshold = 100;
+    /**
+     * the call is slow, if the duration exceed, unit: milliseconds
+     */
+    private long slowCallDurationThreshold = 5000L;
+    /**
+     * the wait duration in the open state, before the half-open, unit: seconds
+     */
+    private int waitDurationInOpenState = 30;
+    /**
+     * the permitted trial calls in the half-open state
+     */
+    private int permittedCallsInHalfOpenState = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getSlowCallDurationThreshold() {
+        return slowCallDurationThreshold;
+    }
+
+    public void setSlowCallDurationThreshold(long slowCallDurationThreshold) {
+        this.slowCallDurationThreshold = slowCallDurationThreshold;
+    }
+
+    public int getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    public void setWaitDurationInOpenState(int waitDurationInOpenState) {
+        this.waitDurationInOpenState = waitDurationInOpenState;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+}
@@ -16,6 +16,7 @@
 package com.photowey.http.rpc.client.properties;
 
 import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import com.photowey.http.rpc.core.enums.ExecutionModeEnum;
 import com.photowey.http.rpc.core.enums.ExecutorEnum;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -45,6 +46,12 @@ public class HRpcClientProperties {
      * @since 1.1.0
      */
     private ClusterStrategyEnum clusterStrategy = ClusterStrategyEnum.POLLING;
+    /**
+     * the execution mode of the offloaded calls, virtual-threads requires the JDK supports
+     *
+     * @since 1.1.0
+     */
+    private ExecutionModeEnum executionMode = ExecutionModeEnum.PLATFORM;
     /**
      * the remote service info
      *
@@ -56,6 +63,50 @@ public class HRpcClientProperties {
     private int readTimeout = 60;
     private int writeTimeout = 60;
 
+    /**
+     * log the response body in the debug level, the body is decoded from the stream, so it's opt-in
+     *
+     * @since 1.1.0
+     */
+    private boolean logBody = false;
+    /**
+     * the max bytes of the logged response body
+     *
+     * @since 1.1.0
+     */
+    private int logBodyMaxSize = 4096;
+
+    /**
+     * the OkHttp client pool config
+     *
+     * @since 1.1.0
+     */
+    private OkHttpProperties okhttp = new OkHttpProperties();
+    /**
+     * the Apache HttpClient pool config
+     *
+     * @since 1.1.0
+     */
+    private HttpClientProperties httpclient = new HttpClientProperties();
+    /**
+     * the async completion executor config
+     *
+     * @since 1.1.0
+     */
+    private AsyncProperties async = new AsyncProperties();
+    /**
+     * the Netty executor config
+     *
+     * @since 1.1.0
+     */
+    private NettyProperties netty = new NettyProperties();
+    /**
+     * the route health check config
+     *
+     * @since 1.1.0
+     */
+    private HealthCheckProperties healthCheck = new HealthCheckProperties();
+
     public ExecutorEnum getExecutorType() {
         return executorType;
     }
@@ -64,6 +115,14 @@ public class HRpcClientProperties {
         this.executorType = executorType;
     }
 
+    public ExecutionModeEnum getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionModeEnum executionMode) {
+        this.executionMode = executionMode;
+    }
+
     public ClusterStrategyEnum getClusterStrategy() {
         return clusterStrategy;
     }
@@ -96,6 +155,62 @@ public class HRpcClientProperties {
         this.writeTimeout = writeTimeout;
     }
 
+    public boolean isLogBody() {
+        return logBody;
+    }
+
+    public void setLogBody(boolean logBody) {
+        this.logBody = logBody;
+    }
+
+    public int getLogBodyMaxSize() {
+        return logBodyMaxSize;
+    }
+
+    public void setLogBodyMaxSize(int logBodyMaxSize) {
+        this.logBodyMaxSize = logBodyMaxSize;
+    }
+
+    public OkHttpProperties getOkhttp() {
+        return okhttp;
+    }
+
+    public void setOkhttp(OkHttpProperties okhttp) {
+        this.okhttp = okhttp;
+    }
+
+    public HttpClientProperties getHttpclient() {
+        return httpclient;
+    }
+
+    public void setHttpclient(HttpClientProperties httpclient) {
+        this.httpclient = httpclient;
+    }
+
+    public AsyncProperties getAsync() {
+        return async;
+    }
+
+    public void setAsync(AsyncProperties async) {
+        this.async = async;
+    }
+
+    public NettyProperties getNetty() {
+        return netty;
+    }
+
+    public void setNetty(NettyProperties netty) {
+        this.netty = netty;
+    }
+
+    public HealthCheckProperties getHealthCheck() {
+        return healthCheck;
+    }
+
+    public void setHealthCheck(HealthCheckProperties healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
     public List<ServiceInfo> getServices() {
         return services;
     }
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the route health check config
+ * <p>
+ * hrpc.client.health-check.*
+ * <p>
+ * the passive outlier detection eject the failing routes for a while,
+ * and the active probes eject the routes until the health path respond 2xx again
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class HealthCheckProperties implements Serializable {
+
+    private static final long serialVersionUID = 3462307720596818458L;
+
+    /**
+     * the passive outlier detection enabled or not
+     */
+    private boolean enabled = true;
+    /**
+     * the consecutive failures to eject a route
+     */
+    private int consecutiveFailures = 5;
+    /**
+     * the failure rate to eject a route in the window, unit: percent
+     */
+    private int failureRateThreshold = 50;
+    /**
+     * the min calls in the window before the failure rate is evaluated
+     */
+    private int minimumCalls = 20;
+    /**
+     * the failure rate window, unit: seconds
+     */
+    private int window = 10;
+    /**
+     * the ejection time of the passive outlier detection, unit: seconds
+     */
+    private int ejectionTime = 30;
+    /**
+     * the max ejected routes of each service, unit: percent,
+     * the percent of the routes rounded down, but at least one route can be ejected if positive, 0 disable the passive ejection
+     */
+    private int maxEjectionPercent = 50;
+
+    // =================================================================================================================
+
+    /**
+     * the active probes enabled or not
+     */
+    private boolean probeEnabled = false;
+    /**
+     * the health path of the providers
+     */
+    private String probePath = "/actuator/health";
+    /**
+     * the protocol of the probes, http or https
+     */
+    private String probeProtocol = "http";
+    /**
+     * the probe interval, unit: seconds
+     */
+    private int probeInterval = 10;
+    /**
+     * the probe connect and read timeout, unit: seconds
+     */
+    private int probeTimeout = 2;
+    /**
+     * the max probe threads
+     */
+    private int probeThreads = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+
+    public int getEjectionTime() {
+        return ejectionTime;
+    }
+
+    public void setEjectionTime(int ejectionTime) {
+        this.ejectionTime = ejectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public void setMaxEjectionPercent(int maxEjectionPercent) {
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+
+    public boolean isProbeEnabled() {
+        return probeEnabled;
+    }
+
+    public void setProbeEnabled(boolean probeEnabled) {
+        this.probeEnabled = probeEnabled;
+    }
+
+    public String getProbePath() {
+        return probePath;
+    }
+
+    public void setProbePath(String probePath) {
+        this.probePath = probePath;
+    }
+
+    public String getProbeProtocol() {
+        return probeProtocol;
+    }
+
+    public void setProbeProtocol(String probeProtocol) {
+        this.probeProtocol = probeProtocol;
+    }
+
+    public int getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(int probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public int getProbeTimeout() {
+        return probeTimeout;
+    }
+
+    public void setProbeTimeout(int probeTimeout) {
+        this.probeTimeout = probeTimeout;
+    }
+
+    public int getProbeThreads() {
+        return probeThreads;
+    }
+
+    public void setProbeThreads(int probeThreads) {
+        this.probeThreads = probeThreads;
+    }
+}
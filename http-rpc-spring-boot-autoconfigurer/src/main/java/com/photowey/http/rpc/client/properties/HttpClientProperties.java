@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the Apache HttpClient pool config
+ * <p>
+ * hrpc.client.httpclient.*
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.request.httpclient.HttpClientRegistry
+ * @since 1.1.0
+ */
+public class HttpClientProperties implements Serializable {
+
+    private static final long serialVersionUID = -4043937251432520961L;
+
+    /**
+     * the max total connections of each client's connection manager
+     */
+    private int maxTotal = 200;
+    /**
+     * the max connections per route of each client's connection manager
+     */
+    private int maxPerRoute = 50;
+    /**
+     * the idle connection will be evicted after the time, unit: seconds
+     */
+    private long maxIdleTime = 60;
+    /**
+     * the pooled connection will be re-validated after inactivity, unit: milliseconds
+     */
+    private int validateAfterInactivity = 2000;
+    /**
+     * wait for a pooled connection at most the time, when the pool is exhausted, unit: seconds
+     * <p>
+     * the non-positive value: the same as the hrpc.client.connect-timeout
+     */
+    private int connectionRequestTimeout = 0;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the Netty executor config
+ * <p>
+ * hrpc.client.netty.*
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class NettyProperties implements Serializable {
+
+    private static final long serialVersionUID = 8120652934719340127L;
+
+    /**
+     * the event loop threads, 0: the Netty default, CPUs * 2
+     */
+    private int ioThreads = 0;
+    /**
+     * the max channels of each host pool
+     */
+    private int maxConnectionsPerHost = 64;
+    /**
+     * the max pending acquires of each host pool, when all the channels are in use
+     */
+    private int maxPendingAcquires = 1024;
+    /**
+     * the max response body size, unit: bytes
+     */
+    private int maxContentLength = 10 * 1024 * 1024;
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getMaxPendingAcquires() {
+        return maxPendingAcquires;
+    }
+
+    public void setMaxPendingAcquires(int maxPendingAcquires) {
+        this.maxPendingAcquires = maxPendingAcquires;
+    }
+
+    public int getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(int maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+}
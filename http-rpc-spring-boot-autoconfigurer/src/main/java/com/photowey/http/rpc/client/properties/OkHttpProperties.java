@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.properties;
+
+import java.io.Serializable;
+
+/**
+ * the OkHttp client pool config
+ * <p>
+ * hrpc.client.okhttp.*
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @see com.photowey.http.rpc.client.request.okhttp.OkHttpClientRegistry
+ * @since 1.1.0
+ */
+public class OkHttpProperties implements Serializable {
+
+    private static final long serialVersionUID = 3466328862395245147L;
+
+    /**
+     * the max idle connections in each client's connection pool
+     */
+    private int maxIdleConnections = 20;
+    /**
+     * the keep-alive duration of the idle connection, unit: seconds
+     */
+    private long keepAliveDuration = 300;
+    /**
+     * the max concurrent requests of the dispatcher
+     */
+    private int maxRequests = 256;
+    /**
+     * the max concurrent requests per host of the dispatcher
+     */
+    private int maxRequestsPerHost = 64;
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public long getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
+
+    public void setKeepAliveDuration(long keepAliveDuration) {
+        this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+}
@@ -47,6 +47,12 @@ public class ServiceInfo implements Serializable {
      * - port
      */
     private List<ServiceRoute> routes;
+    /**
+     * the circuit breaker of each route
+     *
+     * @since 1.1.0
+     */
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
 
     public String getService() {
         return service;
@@ -63,4 +69,12 @@ public class ServiceInfo implements Serializable {
     public void setRoutes(List<ServiceRoute> routes) {
         this.routes = routes;
     }
+
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
 }
@@ -15,6 +15,9 @@
  */
 package com.photowey.http.rpc.client.properties;
 
+import com.photowey.http.rpc.client.cluster.health.RouteHealth;
+import com.photowey.http.rpc.client.cluster.stats.RouteStats;
+
 import java.io.Serializable;
 
 /**
@@ -42,6 +45,18 @@ public class ServiceRoute implements Serializable {
      * @see com.photowey.http.rpc.client.cluster.strategy.impl.WeightRandomClusterStrategySelector
      */
     private int weight = 1;
+    /**
+     * the runtime statistics of the route, not a config property
+     *
+     * @since 1.1.0
+     */
+    private final transient RouteStats stats = new RouteStats();
+    /**
+     * the health state of the route, not a config property
+     *
+     * @since 1.1.0
+     */
+    private final transient RouteHealth health = new RouteHealth();
 
     public String getIp() {
         return ip;
@@ -66,4 +81,35 @@ public class ServiceRoute implements Serializable {
     public void setWeight(int weight) {
         this.weight = weight;
     }
+
+    /**
+     * the route host
+     * ip:port
+     *
+     * @return the host
+     * @since 1.1.0
+     */
+    public String toHost() {
+        return this.ip + ":" + this.port;
+    }
+
+    /**
+     * the runtime statistics of the route
+     *
+     * @return {@link RouteStats}
+     * @since 1.1.0
+     */
+    public RouteStats stats() {
+        return this.stats;
+    }
+
+    /**
+     * the health state of the route
+     *
+     * @return {@link RouteHealth}
+     * @since 1.1.0
+     */
+    public RouteHealth health() {
+        return this.health;
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.executor;
+
+import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
+
+/**
+ * The non-blocking Request Executor of the Reactor Mono<T> and Flux<T> methods
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public interface ReactiveRequestExecutor extends RequestExecutor {
+
+    /**
+     * execute the HTTP request reactively, nothing is sent until subscribed
+     * <p>
+     * the result is declared as Object, so the Reactor stays optional for the callers
+     * <p>
+     * the {@link ClientRequest#getRoute()} is not null in the cluster mode,
+     * call the {@link ClientMethod#beginCall(ClientRequest)} on subscribe, and the {@link ClientMethod#endCall(ClientRequest, long, Throwable)} on terminate or cancel
+     *
+     * @param method  HPpc Client-Method-Object
+     * @param request the per-call request state
+     * @return the Mono<T> or Flux<T>, according to the method return type
+     */
+    Object executeReactive(ClientMethod method, ClientRequest request);
+}
@@ -16,10 +16,13 @@
 package com.photowey.http.rpc.client.request.executor;
 
 import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
 import com.photowey.http.rpc.core.exception.HRpcException;
 import okhttp3.MediaType;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Request Executor
@@ -49,11 +52,37 @@ public interface RequestExecutor {
     /**
      * execute the HTTP request
      *
-     * @param method HPpc Client-Method-Object
+     * @param method  HPpc Client-Method-Object
+     * @param request the per-call request state
      * @param <T>
      * @return T Type
      * @throws HRpcException
      * @throws IOException
      */
-    <T> T execute(ClientMethod method) throws HRpcException, IOException;
+    <T> T execute(ClientMethod method, ClientRequest request) throws HRpcException, IOException;
+
+    /**
+     * execute the HTTP request asynchronously, for the CompletableFuture<T> or CompletionStage<T> methods
+     * <p>
+     * offload the blocking {@link #execute(ClientMethod, ClientRequest)} to the async executor by default,
+     * the executor with the non-blocking I/O should override it
+     *
+     * @param method  HPpc Client-Method-Object
+     * @param request the per-call request state
+     * @param <T>
+     * @return the future of T Type, completed on the async executor
+     * @since 1.1.0
+     */
+    default <T> CompletableFuture<T> executeAsync(ClientMethod method, ClientRequest request) {
+        Executor executor = method.getHRpcConfiguration().getAsyncExecutor();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.execute(method, request);
+            } catch (HRpcException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new HRpcException("http executor invoke remote:[{}] exception", e, method.getCommand().getMethodName());
+            }
+        }, executor);
+    }
 }
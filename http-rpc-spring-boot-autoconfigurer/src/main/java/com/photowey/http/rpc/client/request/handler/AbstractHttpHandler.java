@@ -16,18 +16,16 @@
 package com.photowey.http.rpc.client.request.handler;
 
 import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
 import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.ParameterBinder;
 import com.photowey.http.rpc.client.config.HRpcConfiguration;
 import com.photowey.http.rpc.client.context.RequestContext;
 import com.photowey.http.rpc.core.exception.HRpcException;
-import com.photowey.http.rpc.core.util.HRpcUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -57,21 +55,36 @@ public abstract class AbstractHttpHandler implements HttpHandler {
     public Object handleRequest(Class<?> targetProxy, Method target, Object[] args) throws HRpcException {
         Annotation annotation = this.handleAnnotation(target);
         ClientMethod clientMethod = this.cachedClientMethod(target, annotation);
+
+        return this.handleRequest(clientMethod, args);
+    }
+
+    /**
+     * handle the Http Request with the prepared client method
+     *
+     * @param clientMethod {@link ClientMethod}
+     * @param args         the request params
+     * @return the response
+     * @throws HRpcException
+     * @since 1.1.0
+     */
+    public Object handleRequest(ClientMethod clientMethod, Object[] args) throws HRpcException {
         RequestContext context = this.hrpcConfiguration.getRequestContextFactory().createContext();
-        MethodSignature methodSignature = this.hrpcConfiguration.handleAll(clientMethod.getMethod(), target);
+        MethodSignature methodSignature = clientMethod.getMethod();
+        // the per-call state, the method signature is read-only and shared by the concurrent invocations
+        ClientRequest request = methodSignature.newRequest();
         try {
-            this.preInterceptAll(clientMethod, methodSignature, context);
-            this.hrpcConfiguration.interceptAll(methodSignature, context);
-            this.postInterceptAll(clientMethod, methodSignature, context);
+            this.handleUrl(methodSignature, request, args);
 
-            this.handleQuery(methodSignature, args);
-            this.handlePath(methodSignature, args);
-            this.handleBody(methodSignature, args);
-            this.handleHeader(methodSignature, args);
+            this.preInterceptAll(clientMethod, request, context);
+            this.hrpcConfiguration.interceptAll(clientMethod.getInterceptors(), request, context);
+            this.postInterceptAll(clientMethod, request, context);
+
+            this.handleParameters(methodSignature, request, args);
 
             this.doRequest(clientMethod);
 
-            Object response = clientMethod.execute();
+            Object response = clientMethod.execute(request);
             return response;
         } catch (HRpcException e) {
             throw e;
@@ -79,17 +92,16 @@ public abstract class AbstractHttpHandler implements HttpHandler {
             throw new HRpcException("http executor invoke remote:[{}] exception", clientMethod.getCommand().getMethodName(), e);
         } finally {
             context.clear();
-            methodSignature.clear();
         }
     }
 
     public abstract Annotation handleAnnotation(Method target);
 
-    public void preInterceptAll(ClientMethod clientMethod, MethodSignature methodSignature, RequestContext context) {
+    public void preInterceptAll(ClientMethod clientMethod, ClientRequest request, RequestContext context) {
 
     }
 
-    public void postInterceptAll(ClientMethod clientMethod, MethodSignature methodSignature, RequestContext context) {
+    public void postInterceptAll(ClientMethod clientMethod, ClientRequest request, RequestContext context) {
 
     }
 
@@ -97,115 +109,33 @@ public abstract class AbstractHttpHandler implements HttpHandler {
         // do something for sub-class
     }
 
-    // ================================================================================================================= REQUEST PARAM
-
-    public void handleQuery(MethodSignature methodSignature, Object[] args) {
-        String url = methodSignature.getUrl();
-        // 1.处理 普通的请求参数
-        // 1.1.处理带 别名的参数
-        Map<String, Integer> queries = methodSignature.getQueries();
-        Set<Map.Entry<String, Integer>> queryEntries = queries.entrySet();
-        for (Map.Entry<String, Integer> queryEntry : queryEntries) {
-            String key = queryEntry.getKey();
-            Integer paramIndex = queryEntry.getValue();
-            url = url.replaceAll("\\{" + key + "}", String.valueOf(args[paramIndex]));
-        }
-        // 1.2.处理不带别名的
-        StringBuilder builder = new StringBuilder(url);
-        Map<String, Integer> noAliasParamIndex = methodSignature.getNoAliasParamIndex();
-        Set<Map.Entry<String, Integer>> noAlisaEntries = noAliasParamIndex.entrySet();
-        for (Map.Entry<String, Integer> noAlisaEntry : noAlisaEntries) {
-            String key = noAlisaEntry.getKey();
-            Integer paramIndex = noAlisaEntry.getValue();
-            HRpcUtils.populateQuery(builder, key, String.valueOf(args[paramIndex]));
-        }
-
-        // 2.处理 MAP 对象 请求参数
-        List<Integer> queryMapIndex = methodSignature.getQueryMapIndex();
-        for (Integer index : queryMapIndex) {
-            Map<String, Objects> mapParams = (Map<String, Objects>) args[index];
-            Set<Map.Entry<String, Objects>> entries = mapParams.entrySet();
-            for (Map.Entry<String, Objects> entry : entries) {
-                String key = entry.getKey();
-                String valueStr = String.valueOf(entry.getValue());
-                HRpcUtils.populateQuery(builder, key, valueStr);
-            }
-        }
-
-        methodSignature.setUrl(builder.toString());
-
-    }
-
-    // ================================================================================================================= PATH
-
-    public void handlePath(MethodSignature methodSignature, Object[] args) {
-        // 1.处理 普通的路径参数
-        this.populatePaths(methodSignature, args);
-        // 2.处理 没别名的路径参数
-        this.populateNoAlisaPaths(methodSignature, args);
-    }
-
-    public void populatePaths(MethodSignature methodSignature, Object[] args) {
-        Map<String, Integer> pathVariable = methodSignature.getPathVariable();
-        Set<Map.Entry<String, Integer>> entries = pathVariable.entrySet();
-        String url = methodSignature.getUrl();
-        for (Map.Entry<String, Integer> entry : entries) {
-            String key = entry.getKey();
-            Integer pathIndex = entry.getValue();
-            url = url.replaceAll("\\{" + key + "}", String.valueOf(args[pathIndex]));
-        }
-
-        methodSignature.setUrl(url);
-    }
-
-    public void populateNoAlisaPaths(MethodSignature methodSignature, Object[] args) {
-        Map<String, Integer> noAlisaPathIndex = methodSignature.getNoAlisaPathIndex();
-        Set<Map.Entry<String, Integer>> entries = noAlisaPathIndex.entrySet();
-        String url = methodSignature.getUrl();
-        for (Map.Entry<String, Integer> entry : entries) {
-            String key = entry.getKey();
-            Integer pathIndex = entry.getValue();
-            url = url.replaceAll("\\{" + key + "}", String.valueOf(args[pathIndex]));
-        }
-
-        methodSignature.setUrl(url);
-    }
-
-    // ================================================================================================================= BODY
-
-    public void handleBody(MethodSignature methodSignature, Object[] args) {
-        Integer bodyIndex = methodSignature.getBodyIndex();
-        if (null != bodyIndex) {
-            Object requestBody = args[bodyIndex];
-            methodSignature.setRequestBody(requestBody);
-        }
-    }
-
-    // ================================================================================================================= HEADER
+    // ================================================================================================================= URL
 
-    public void handleHeader(MethodSignature methodSignature, Object[] args) {
-        Map<String, String> headerValues = methodSignature.getHeaderValues();
-        this.handleHeaders(methodSignature, args, headerValues);
-        this.handleNoAlisaHeaders(methodSignature, args, headerValues);
+    /**
+     * render the url with the compiled url template, handle the {@literal @}PathVariable and {@literal @}RequestParam
+     *
+     * @param methodSignature {@link MethodSignature}
+     * @param request         {@link ClientRequest}
+     * @param args            the invocation arguments
+     * @since 1.1.0
+     */
+    public void handleUrl(MethodSignature methodSignature, ClientRequest request, Object[] args) {
+        request.setUrl(methodSignature.getUrlTemplate().render(args));
     }
 
-    public void handleHeaders(MethodSignature methodSignature, Object[] args, Map<String, String> headerValues) {
-        Map<String, Integer> headers = methodSignature.getHeaders();
-        Set<Map.Entry<String, Integer>> entries = headers.entrySet();
-        for (Map.Entry<String, Integer> entry : entries) {
-            String key = entry.getKey();
-            Integer headerIndex = entry.getValue();
-            headerValues.put(key, String.valueOf(args[headerIndex]));
-        }
-    }
+    // ================================================================================================================= BODY AND HEADER
 
-    public void handleNoAlisaHeaders(MethodSignature methodSignature, Object[] args, Map<String, String> headerValues) {
-        Map<String, Integer> noAlisaHeaderIndex = methodSignature.getNoAlisaHeaderIndex();
-        Set<Map.Entry<String, Integer>> entries = noAlisaHeaderIndex.entrySet();
-        for (Map.Entry<String, Integer> entry : entries) {
-            String key = entry.getKey();
-            Integer headerIndex = entry.getValue();
-            headerValues.put(key, String.valueOf(args[headerIndex]));
+    /**
+     * bind the {@literal @}RequestBody and {@literal @}RequestHeader arguments with the compiled binders
+     *
+     * @param methodSignature {@link MethodSignature}
+     * @param request         {@link ClientRequest}
+     * @param args            the invocation arguments
+     * @since 1.1.0
+     */
+    public void handleParameters(MethodSignature methodSignature, ClientRequest request, Object[] args) {
+        for (ParameterBinder binder : methodSignature.getBinders()) {
+            binder.bind(request, args);
         }
     }
 
@@ -215,6 +145,12 @@ public abstract class AbstractHttpHandler implements HttpHandler {
 
     // =================================================================================================================
 
+    @Override
+    public HttpInvoker prepare(Class<?> targetProxy, Method target) throws HRpcException {
+        ClientMethod clientMethod = this.cachedClientMethod(target, this.handleAnnotation(target));
+        return args -> this.handleRequest(clientMethod, args);
+    }
+
     protected ClientMethod cachedClientMethod(Method target, Annotation httpAnnotation) {
         return this.methodCache.computeIfAbsent(target, k -> new ClientMethod(target, httpAnnotation, hrpcConfiguration));
     }
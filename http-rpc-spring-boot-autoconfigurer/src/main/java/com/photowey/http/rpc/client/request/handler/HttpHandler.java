@@ -45,4 +45,18 @@ public interface HttpHandler {
      * @throws HRpcException
      */
     Object handleRequest(Class<?> targetProxy, Method target, Object[] args) throws HRpcException;
+
+    /**
+     * prepare the target Method when the proxy is created,
+     * such as: parse the http annotation and compile the parameter binding
+     *
+     * @param targetProxy the HRpcClient Interface
+     * @param target      the target Method
+     * @return the prepared {@link HttpInvoker}
+     * @throws HRpcException
+     * @since 1.1.0
+     */
+    default HttpInvoker prepare(Class<?> targetProxy, Method target) throws HRpcException {
+        return args -> this.handleRequest(targetProxy, target, args);
+    }
 }
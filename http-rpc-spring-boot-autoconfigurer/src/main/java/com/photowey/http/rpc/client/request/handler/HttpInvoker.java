@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.handler;
+
+import com.photowey.http.rpc.core.exception.HRpcException;
+
+/**
+ * HttpInvoker
+ * <p>
+ * the prepared invoker of the target Method, bound to its {@link HttpHandler} and the compiled client method
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface HttpInvoker {
+
+    /**
+     * invoke the remote
+     *
+     * @param args the request params
+     * @return the response
+     * @throws HRpcException
+     */
+    Object invoke(Object[] args) throws HRpcException;
+}
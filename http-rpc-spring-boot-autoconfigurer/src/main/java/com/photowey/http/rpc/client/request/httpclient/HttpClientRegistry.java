@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.httpclient;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The Apache HttpClient registry
+ * <p>
+ * cache the managed {@link CloseableHttpClient} by service and protocol,
+ * each client owns a {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager}
+ * and the idle/expired connection evictor thread
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class HttpClientRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    private static final String KEY_SEPARATOR = "@";
+
+    private final Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * get the cached client, build it once if absent
+     *
+     * @param key     the client key {@link #determineKey(String, String)}
+     * @param factory the client factory
+     * @return {@link CloseableHttpClient}
+     */
+    public CloseableHttpClient getClient(String key, Function<String, CloseableHttpClient> factory) {
+        CloseableHttpClient client = this.clients.get(key);
+        if (null != client) {
+            return client;
+        }
+
+        return this.clients.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * close the clients, shutdown the connection manager and the evictor thread
+     */
+    public void close() {
+        for (Map.Entry<String, CloseableHttpClient> entry : this.clients.entrySet()) {
+            if (log.isInfoEnabled()) {
+                log.info("shutdown the httpclient:[{}]", entry.getKey());
+            }
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                log.warn("shutdown the httpclient:[{}] exception", entry.getKey(), e);
+            }
+        }
+
+        this.clients.clear();
+    }
+
+    /**
+     * the client key
+     * service@protocol
+     *
+     * @param service  the target service
+     * @param protocol the request protocol
+     * @return the client key
+     */
+    public static String determineKey(String service, String protocol) {
+        return service + KEY_SEPARATOR + protocol;
+    }
+}
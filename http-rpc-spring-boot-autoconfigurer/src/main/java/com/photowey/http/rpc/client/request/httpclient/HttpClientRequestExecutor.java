@@ -17,18 +17,19 @@ package com.photowey.http.rpc.client.request.httpclient;
 
 import com.photowey.http.rpc.client.annotation.RequestExecutorMarker;
 import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
 import com.photowey.http.rpc.client.binding.MethodSignature;
 import com.photowey.http.rpc.client.binding.RequestCommand;
 import com.photowey.http.rpc.client.config.HRpcConfiguration;
 import com.photowey.http.rpc.client.properties.HRpcClientProperties;
-import com.photowey.http.rpc.client.request.trust.X509TrustManagerImpl;
+import com.photowey.http.rpc.client.properties.HttpClientProperties;
 import com.photowey.http.rpc.core.enums.ExecutorEnum;
 import com.photowey.http.rpc.core.exception.HRpcException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
 import com.photowey.http.rpc.core.util.HRpcUtils;
-import com.photowey.http.rpc.core.util.JsonUtils;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.HttpEntity;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
@@ -38,30 +39,30 @@ import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.util.ClassUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.SecureRandom;
-import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Apache Http Client RequestExecutor
@@ -71,103 +72,165 @@ import java.util.Set;
  * @since 1.0.0
  */
 @RequestExecutorMarker(value = ExecutorEnum.APACHE_HTTP_CLIENT)
-public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
+public class HttpClientRequestExecutor implements IHttpClientRequestExecutor, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(HttpClientRequestExecutor.class);
 
     private final HRpcConfiguration hrpcConfiguration;
 
+    protected final HttpClientRegistry clientRegistry = new HttpClientRegistry();
+
     public HttpClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
         this.hrpcConfiguration = hrpcConfiguration;
     }
 
     @Override
-    public <T> T execute(ClientMethod method) throws RuntimeException, IOException {
+    public <T> T execute(ClientMethod method, ClientRequest clientRequest) throws RuntimeException, IOException {
         RequestCommand command = method.getCommand();
         MethodSignature methodSignature = method.getMethod();
 
         RequestMethod requestMethod = command.getRequestMethod();
-        String url = methodSignature.getUrl();
-
-        HRpcClientProperties properties = hrpcConfiguration.getHRpcClientProperties();
-        try {
-            HttpClient httpClient = this.populateHttpClient(url, properties);
-            HttpEntityEnclosingRequestBase request = this.populateRequest(methodSignature, requestMethod);
-            this.requestEnhance(request);
-            HttpResponse response = httpClient.execute(request);
-            int core = response.getStatusLine().getStatusCode();
-            if (REQUEST_OK == core) {
+        String url = clientRequest.getUrl();
+
+        CloseableHttpClient httpClient = this.determineHttpClient(command);
+        HttpEntityEnclosingRequestBase request = this.populateRequest(methodSignature, clientRequest, requestMethod);
+        this.requestEnhance(request);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            try {
+                int core = response.getStatusLine().getStatusCode();
+                if (REQUEST_OK != core) {
+                    throw new HttpStatusException(core, "execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, core);
+                }
                 Class<?> returnType = methodSignature.getReturnType();
                 if (log.isDebugEnabled()) {
                     log.debug("httpclient:: the method:[{}]return type is:[{}]", command.getMethodName(), returnType.getSimpleName());
                 }
-                if (void.class.equals(returnType)) {
+                if (methodSignature.isVoidResponse()) {
                     return null;
-                } else {
-                    String responseStr = EntityUtils.toString(response.getEntity(), CHARSET_UTF8);
-                    if (log.isDebugEnabled()) {
-                        log.debug("the okhttp url:[{}] response is:[{}]", url, responseStr);
-                    }
-                    if (Collection.class.isAssignableFrom(returnType)) {
-                        List<?> multi = JsonUtils.toBeans(responseStr, returnType);
-                        return (T) multi;
-                    }
-                    if (ResponseEntity.class.equals(returnType)) {
-                        String typeName = methodSignature.getTypeName();
-                        Class<?> type = null;
-                        try {
-                            type = ClassUtils.forName(typeName, this.getClass().getClassLoader());
-                        } catch (ClassNotFoundException e) {
-                            throw new HRpcException("not found Class:[{}]", typeName, e);
-                        }
-                        Object body = JsonUtils.toBean(responseStr, type);
-                        HttpStatus status = HttpStatus.valueOf(core);
-                        return (T) new ResponseEntity<>(body, status);
-                    } else {
-                        return (T) JsonUtils.toBean(responseStr, returnType);
-                    }
                 }
+                InputStream content = entity.getContent();
+                HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+                if (properties.isLogBody() && log.isDebugEnabled()) {
+                    content = new BufferedInputStream(content);
+                    log.debug("the httpclient url:[{}] response is:[{}]", url, this.peekBody(content, properties.getLogBodyMaxSize()));
+                }
+                // decode from the socket stream directly
+                Object body = this.hrpcConfiguration.getJsonCodec().decode(methodSignature.getResponseReader(), content);
+                // handle The ResponseEntity and Optional
+                return (T) methodSignature.toResponse(body, core);
+            } finally {
+                // release the connection back to the pool
+                EntityUtils.consumeQuietly(entity);
             }
+        } catch (HRpcException e) {
+            throw e;
         } catch (Exception e) {
-            throw new HRpcException("handle the remote invoke with Apache http client exception");
+            throw new HRpcException("handle the remote invoke with Apache http client exception", e);
+        }
+    }
+
+    /**
+     * peek the capped body, the stream is reset after the peek
+     *
+     * @param in      the mark supported stream
+     * @param maxSize the max bytes
+     * @return the capped body
+     * @throws IOException
+     * @since 1.1.0
+     */
+    protected String peekBody(InputStream in, int maxSize) throws IOException {
+        in.mark(maxSize);
+        byte[] buffer = new byte[maxSize];
+        int length = 0;
+        int read;
+        while (length < maxSize && (read = in.read(buffer, length, maxSize - length)) != -1) {
+            length += read;
         }
+        in.reset();
 
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
 
-        throw new HRpcException("current not support Apache http client executor");
+    @Override
+    public void destroy() {
+        this.clientRegistry.close();
     }
 
     // ======================================================================================
 
-    private HttpClient populateHttpClient(String url, HRpcClientProperties properties) throws KeyManagementException,
+    /**
+     * determine the managed client of the target service
+     *
+     * @param command the request command
+     * @return the cached {@link CloseableHttpClient}
+     * @since 1.1.0
+     */
+    public CloseableHttpClient determineHttpClient(RequestCommand command) {
+        String key = HttpClientRegistry.determineKey(command.getService(), command.getProtocol());
+
+        return this.clientRegistry.getClient(key, k -> this.createHttpClient(command.getProtocol()));
+    }
+
+    /**
+     * create the client, only once for each key of the {@link HttpClientRegistry}
+     *
+     * @param protocol the request protocol
+     * @return {@link CloseableHttpClient}
+     * @since 1.1.0
+     */
+    protected CloseableHttpClient createHttpClient(String protocol) {
+        HRpcClientProperties properties = hrpcConfiguration.getHRpcClientProperties();
+        try {
+            return this.populateHttpClient(protocol, properties);
+        } catch (GeneralSecurityException e) {
+            throw new HRpcException("handle the https SSLContext exception", e);
+        }
+    }
+
+    // ======================================================================================
+
+    private CloseableHttpClient populateHttpClient(String protocol, HRpcClientProperties properties) throws KeyManagementException,
             NoSuchAlgorithmException, NoSuchProviderException {
-        RegistryBuilder<ConnectionSocketFactory> registryBuilder = this.populateRegistryBuilder(url);
+        RegistryBuilder<ConnectionSocketFactory> registryBuilder = this.populateRegistryBuilder(protocol);
         this.preRegistryBuilder(registryBuilder);
         Registry<ConnectionSocketFactory> socketFactoryRegistry = this.buildRegistry(registryBuilder);
 
-
         RequestConfig.Builder builder = populateConfigBuilder(properties);
         this.preBuildConfigBuilder(builder);
         RequestConfig defaultRequestConfig = this.buildRequestConfig(builder);
 
-        PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        PoolingHttpClientConnectionManager connManager = this.populateConnectionManager(socketFactoryRegistry, properties.getHttpclient());
 
         HttpClientBuilder httpClientBuilder = this.populateHttpClientBuilder(defaultRequestConfig, connManager);
+        httpClientBuilder.evictExpiredConnections()
+                .evictIdleConnections(properties.getHttpclient().getMaxIdleTime(), TimeUnit.SECONDS);
         this.preBuildHttpClientBuilder(httpClientBuilder);
-        HttpClient httpclient = this.buildHttpClientBuilder(httpClientBuilder);
+        CloseableHttpClient httpclient = this.buildHttpClientBuilder(httpClientBuilder);
 
         return httpclient;
     }
 
+    public PoolingHttpClientConnectionManager populateConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                                                        HttpClientProperties httpclient) {
+        PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connManager.setMaxTotal(httpclient.getMaxTotal());
+        connManager.setDefaultMaxPerRoute(httpclient.getMaxPerRoute());
+        connManager.setValidateAfterInactivity(httpclient.getValidateAfterInactivity());
+
+        return connManager;
+    }
+
     // ======================================================================================
 
     public void requestEnhance(HttpEntityEnclosingRequestBase requestBase) {
 
     }
 
-    public HttpEntityEnclosingRequestBase populateRequest(MethodSignature methodSignature, RequestMethod requestMethod) {
+    public HttpEntityEnclosingRequestBase populateRequest(MethodSignature methodSignature, ClientRequest clientRequest, RequestMethod requestMethod) {
         HttpEntityEnclosingRequestBase requestBase = null;
-        String url = methodSignature.getUrl();
-        Map<String, String> headerValues = methodSignature.getHeaderValues();
+        String url = clientRequest.getUrl();
+        Map<String, String> headerValues = clientRequest.getHeaderValues();
         switch (requestMethod) {
             case GET:
                 requestBase = new HttpGetExt(url);
@@ -196,11 +259,11 @@ public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
             }
         }
 
-        Object requestBody = methodSignature.getRequestBody();
+        Object requestBody = clientRequest.getRequestBody();
         if (HRpcUtils.isNotEmpty(requestBody)) {
-            String bodyStr = JsonUtils.toJSONString(requestBody);
-            StringEntity strEntity = new StringEntity(bodyStr, ContentType.APPLICATION_JSON);
-            requestBase.setEntity(strEntity);
+            // write the JSON to the outgoing stream directly, without the intermediate String
+            requestBase.setEntity(new JsonEntity(this.hrpcConfiguration.getJsonCodec(),
+                    methodSignature.getBodyWriter(), methodSignature.getBodySizeHint(), requestBody));
         }
 
         return requestBase;
@@ -208,10 +271,10 @@ public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
 
     // ======================================================================================
 
-    public RegistryBuilder<ConnectionSocketFactory> populateRegistryBuilder(String url)
+    public RegistryBuilder<ConnectionSocketFactory> populateRegistryBuilder(String protocol)
             throws NoSuchAlgorithmException, NoSuchProviderException, KeyManagementException {
         RegistryBuilder<ConnectionSocketFactory> builder = RegistryBuilder.<ConnectionSocketFactory>create();
-        if (url.contains(HTTPS)) {
+        if (HTTPS.equalsIgnoreCase(protocol)) {
             SSLContext sslcontext = this.createIgnoreVerifySSL();
             builder.register(HTTPS, new SSLConnectionSocketFactory(sslcontext));
         } else {
@@ -221,6 +284,12 @@ public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
         return builder;
     }
 
+    /**
+     * the hook before build the socket factory registry,
+     * invoked once when the managed client of a service is created, not per call
+     *
+     * @param registryBuilder {@link RegistryBuilder}
+     */
     public void preRegistryBuilder(RegistryBuilder<ConnectionSocketFactory> registryBuilder) {
 
     }
@@ -232,12 +301,18 @@ public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
 
     // ======================================================================================
 
-    public HttpClient buildHttpClientBuilder(HttpClientBuilder httpClientBuilder) {
-        HttpClient httpClient = httpClientBuilder.build();
+    public CloseableHttpClient buildHttpClientBuilder(HttpClientBuilder httpClientBuilder) {
+        CloseableHttpClient httpClient = httpClientBuilder.build();
 
         return httpClient;
     }
 
+    /**
+     * the hook before build the client,
+     * invoked once when the managed client of a service is created, not per call
+     *
+     * @param httpClientBuilder {@link HttpClientBuilder}
+     */
     public void preBuildHttpClientBuilder(HttpClientBuilder httpClientBuilder) {
 
     }
@@ -263,17 +338,23 @@ public class HttpClientRequestExecutor implements IHttpClientRequestExecutor {
     }
 
     private RequestConfig.Builder populateConfigBuilder(HRpcClientProperties properties) {
+        // the timeout config unit is: seconds
+        int connectionRequestTimeout = properties.getHttpclient().getConnectionRequestTimeout();
+        if (connectionRequestTimeout <= 0) {
+            // the lease of the bounded pool must be finite, as the Netty channel pool
+            connectionRequestTimeout = properties.getConnectTimeout();
+        }
         return RequestConfig.custom()
-                .setSocketTimeout(properties.getReadTimeout())
-                .setConnectTimeout(properties.getConnectTimeout())
-                .setConnectionRequestTimeout(-1);
+                .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(properties.getReadTimeout()))
+                .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(properties.getConnectTimeout()))
+                .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(connectionRequestTimeout));
     }
 
     // ======================================================================================
 
     private SSLContext createIgnoreVerifySSL() throws NoSuchProviderException,
             NoSuchAlgorithmException, KeyManagementException {
-        TrustManager[] tm = {new X509TrustManagerImpl()};
+        TrustManager[] tm = {this.hrpcConfiguration.getTrustManager()};
         // SSLContext sslContext = SSLContext.getInstance(HTTPS_SSL_V3, HTTPS_POST_SUNJSSE);
         SSLContext sslContext = SSLContext.getInstance(HTTPS_TLS);
         sslContext.init(null, tm, new SecureRandom());
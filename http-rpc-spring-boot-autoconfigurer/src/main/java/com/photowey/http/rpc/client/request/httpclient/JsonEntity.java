@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.httpclient;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.codec.PayloadSizeHint;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * the JSON {@link org.apache.http.HttpEntity}
+ * <p>
+ * the small payload is serialized into the pooled buffer once, with the known content length,
+ * the payload of a method known to be large is written to the outgoing stream directly in {@link #writeTo(OutputStream)},
+ * chunked, no intermediate String
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class JsonEntity extends AbstractHttpEntity {
+
+    private final JsonCodec jsonCodec;
+    private final ObjectWriter writer;
+    private final PayloadSizeHint hint;
+    private final Object source;
+    /**
+     * null: stream the payload
+     */
+    private final byte[] bytes;
+
+    public JsonEntity(JsonCodec jsonCodec, ObjectWriter writer, PayloadSizeHint hint, Object source) {
+        this.jsonCodec = jsonCodec;
+        this.writer = writer;
+        this.hint = hint;
+        this.source = source;
+        this.bytes = jsonCodec.encodeToBytes(writer, source, hint);
+        this.setContentType(ContentType.APPLICATION_JSON.toString());
+        this.setChunked(null == this.bytes);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return null != this.bytes ? this.bytes.length : -1L;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (null != this.bytes) {
+            return new ByteArrayInputStream(this.bytes);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        this.writeTo(out);
+
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (null != this.bytes) {
+            out.write(this.bytes);
+        } else {
+            this.jsonCodec.encode(this.writer, this.source, out, this.hint);
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.okhttp;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.codec.PayloadSizeHint;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+
+/**
+ * the JSON {@link RequestBody}
+ * <p>
+ * the small payload is serialized into the pooled buffer once, with the known content length,
+ * the payload of a method known to be large is written to the outgoing sink directly, no intermediate String
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class JsonRequestBody extends RequestBody {
+
+    private final MediaType contentType;
+    private final JsonCodec jsonCodec;
+    private final ObjectWriter writer;
+    private final PayloadSizeHint hint;
+    private final Object source;
+    /**
+     * null: stream the payload
+     */
+    private final byte[] bytes;
+
+    public JsonRequestBody(MediaType contentType, JsonCodec jsonCodec, ObjectWriter writer, PayloadSizeHint hint, Object source) {
+        this.contentType = contentType;
+        this.jsonCodec = jsonCodec;
+        this.writer = writer;
+        this.hint = hint;
+        this.source = source;
+        this.bytes = jsonCodec.encodeToBytes(writer, source, hint);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return null != this.bytes ? this.bytes.length : -1L;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        if (null != this.bytes) {
+            sink.write(this.bytes);
+        } else {
+            this.jsonCodec.encode(this.writer, this.source, sink.outputStream(), this.hint);
+        }
+    }
+}
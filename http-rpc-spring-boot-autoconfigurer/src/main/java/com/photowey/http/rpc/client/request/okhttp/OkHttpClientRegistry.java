@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.okhttp;
+
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * The OkHttpClient registry
+ * <p>
+ * cache the long-lived {@link OkHttpClient} by service, protocol and TLS settings,
+ * each client owns its {@link okhttp3.ConnectionPool} and {@link okhttp3.Dispatcher},
+ * so that the keep-alive connections can be reused between the calls
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class OkHttpClientRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(OkHttpClientRegistry.class);
+
+    private static final String KEY_SEPARATOR = "@";
+
+    private final Map<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * get the cached client, build it once if absent
+     *
+     * @param key     the client key {@link #determineKey(String, String)}
+     * @param factory the client factory
+     * @return {@link OkHttpClient}
+     */
+    public OkHttpClient getClient(String key, Function<String, OkHttpClient> factory) {
+        OkHttpClient client = this.clients.get(key);
+        if (null != client) {
+            return client;
+        }
+
+        return this.clients.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * shutdown the dispatcher and evict the pooled connections
+     * <p>
+     * the shared executor is owned by the {@link com.photowey.http.rpc.client.config.HRpcConfiguration},
+     * which closes it exactly once, so only the dispatcher executors created by the clients are shutdown here
+     *
+     * @param sharedExecutor the shared executor of the dispatchers, may be null
+     */
+    public void close(ExecutorService sharedExecutor) {
+        for (Map.Entry<String, OkHttpClient> entry : this.clients.entrySet()) {
+            OkHttpClient client = entry.getValue();
+            if (log.isInfoEnabled()) {
+                log.info("shutdown the okhttp client:[{}]", entry.getKey());
+            }
+            ExecutorService executorService = client.dispatcher().executorService();
+            if (executorService != sharedExecutor) {
+                executorService.shutdown();
+            }
+            client.connectionPool().evictAll();
+        }
+
+        this.clients.clear();
+    }
+
+    /**
+     * the client key
+     * service@protocol
+     * <p>
+     * the TLS settings is determined by the protocol,
+     * https use the {@link javax.net.ssl.X509TrustManager} and {@link javax.net.ssl.HostnameVerifier} of the context
+     *
+     * @param service  the target service
+     * @param protocol the request protocol
+     * @return the client key
+     */
+    public static String determineKey(String service, String protocol) {
+        return service + KEY_SEPARATOR + protocol;
+    }
+}
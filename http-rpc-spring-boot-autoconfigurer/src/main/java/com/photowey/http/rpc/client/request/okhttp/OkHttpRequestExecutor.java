@@ -17,23 +17,29 @@ package com.photowey.http.rpc.client.request.okhttp;
 
 import com.photowey.http.rpc.client.annotation.RequestExecutorMarker;
 import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
 import com.photowey.http.rpc.client.binding.MethodSignature;
 import com.photowey.http.rpc.client.binding.RequestCommand;
 import com.photowey.http.rpc.client.config.HRpcConfiguration;
-import com.photowey.http.rpc.client.request.trust.X509TrustManagerImpl;
+import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.client.properties.OkHttpProperties;
 import com.photowey.http.rpc.core.enums.ExecutorEnum;
 import com.photowey.http.rpc.core.exception.HRpcException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
 import com.photowey.http.rpc.core.util.HRpcUtils;
-import com.photowey.http.rpc.core.util.JsonUtils;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import javax.net.ssl.SSLContext;
@@ -44,6 +50,9 @@ import java.security.KeyManagementException;
 import java.security.NoSuchProviderException;
 import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -54,33 +63,96 @@ import java.util.concurrent.TimeUnit;
  * @since 1.0.0
  */
 @RequestExecutorMarker(value = ExecutorEnum.OK_HTTP)
-public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
+public class OkHttpRequestExecutor implements IOkHttpRequestExecutor, DisposableBean {
 
     protected static final Logger log = LoggerFactory.getLogger(OkHttpRequestExecutor.class);
 
+    /**
+     * the empty JSON body
+     *
+     * @since 1.1.0
+     */
+    protected static final RequestBody EMPTY_BODY = RequestBody.create(JSON_APPLICATION, new byte[0]);
+
     protected final HRpcConfiguration hrpcConfiguration;
 
+    protected final OkHttpClientRegistry clientRegistry = new OkHttpClientRegistry();
+
     public OkHttpRequestExecutor(HRpcConfiguration hrpcConfiguration) {
         this.hrpcConfiguration = hrpcConfiguration;
     }
 
     @Override
-    public <T> T execute(ClientMethod method) throws RuntimeException, IOException {
-        RequestCommand command = method.getCommand();
-        MethodSignature methodSignature = method.getMethod();
+    public <T> T execute(ClientMethod method, ClientRequest clientRequest) throws RuntimeException, IOException {
+        OkHttpClient client = this.determineClient(method.getCommand());
+        Request request = this.buildRequest(method, clientRequest);
 
-        RequestMethod requestMethod = command.getRequestMethod();
-        String url = methodSignature.getUrl();
-        Map<String, String> headerValues = methodSignature.getHeaderValues();
+        // hook
+        this.preExecuteRequest(client, request);
 
-        String bodyStr = "";
+        // The Response
+        try (Response response = this.executeRequest(client, request)) {
+            return this.handleResponse(method, clientRequest, response);
+        }
+    }
 
-        OkHttpClient.Builder builder = this.determineClient(url);
+    /**
+     * execute with the {@link Call#enqueue(Callback)}, no thread is blocked during the I/O,
+     * the future is completed on the async executor
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param <T>
+     * @return the future of T Type
+     * @since 1.1.0
+     */
+    @Override
+    public <T> CompletableFuture<T> executeAsync(ClientMethod method, ClientRequest clientRequest) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Executor completionExecutor = this.hrpcConfiguration.getAsyncExecutor();
 
+        OkHttpClient client = this.determineClient(method.getCommand());
+        Request request = this.buildRequest(method, clientRequest);
         // hook
-        this.preBuildClient(builder);
+        this.preExecuteRequest(client, request);
+
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                HRpcException cause = new HRpcException("http executor invoke remote:[{}] exception", e, method.getCommand().getMethodName());
+                completionExecutor.execute(() -> future.completeExceptionally(cause));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response target = response) {
+                    T result = handleResponse(method, clientRequest, target);
+                    completionExecutor.execute(() -> future.complete(result));
+                } catch (Exception e) {
+                    completionExecutor.execute(() -> future.completeExceptionally(e));
+                }
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * build the okhttp request
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @return {@link Request}
+     * @since 1.1.0
+     */
+    protected Request buildRequest(ClientMethod method, ClientRequest clientRequest) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+
+        RequestMethod requestMethod = command.getRequestMethod();
+        String url = clientRequest.getUrl();
+        Map<String, String> headerValues = clientRequest.getHeaderValues();
 
-        OkHttpClient client = this.buildOkHttpClient(builder);
         Request request = null;
         switch (requestMethod) {
             case GET:
@@ -90,59 +162,62 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
             case PUT:
             case PATCH:
             case DELETE:
-                Object requestBody = methodSignature.getRequestBody();
+                Object requestBody = clientRequest.getRequestBody();
+                RequestBody body = EMPTY_BODY;
                 if (HRpcUtils.isNotEmpty(requestBody)) {
-                    bodyStr = JsonUtils.toJSONString(requestBody);
+                    // write the JSON to the sink directly, without the intermediate String
+                    body = new JsonRequestBody(JSON_APPLICATION, this.hrpcConfiguration.getJsonCodec(),
+                            methodSignature.getBodyWriter(), methodSignature.getBodySizeHint(), requestBody);
                 }
 
-                request = this.populateRequest(url, bodyStr, requestMethod, headerValues);
+                request = this.populateRequest(url, body, requestMethod, headerValues);
                 break;
             default:
                 break;
         }
 
-        // hook
-        this.preExecuteRequest(client, request);
+        return request;
+    }
 
-        // The Response
-        Response response = this.executeRequest(client, request);
+    /**
+     * decode the response, the caller closes the response
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param response      {@link Response}
+     * @param <T>
+     * @return T Type
+     * @since 1.1.0
+     */
+    protected <T> T handleResponse(ClientMethod method, ClientRequest clientRequest, Response response) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+        String url = clientRequest.getUrl();
         // Http Status
         HttpStatus status = HttpStatus.valueOf(response.code());
-        if (HttpStatus.OK.equals(status)) {
-            Class<?> returnType = methodSignature.getReturnType();
-            if (log.isDebugEnabled()) {
-                log.debug("the method:[{}]return type is:[{}]", command.getMethodName(), returnType.getSimpleName());
-            }
-            if (void.class.equals(returnType)) {
-                return null;
-            } else {
-                String responseStr = response.body().string();
-                if (log.isDebugEnabled()) {
-                    log.debug("the okhttp url:[{}] response is:[{}]", url, responseStr);
-                }
-                if (Collection.class.isAssignableFrom(returnType)) {
-                    List<?> multi = JsonUtils.toBeans(responseStr, returnType);
-                    return (T) multi;
-                }
-                // handle The ResponseEntity
-                // #issue: java.lang.IllegalArgumentException: HttpStatus must not be null
-                if (ResponseEntity.class.equals(returnType)) {
-                    String typeName = methodSignature.getTypeName();
-                    Class<?> type = null;
-                    try {
-                        type = ClassUtils.forName(typeName, this.getClass().getClassLoader());
-                    } catch (ClassNotFoundException e) {
-                        throw new HRpcException("not found Class:[{}]", typeName, e);
-                    }
-                    Object body = JsonUtils.toBean(responseStr, type);
-                    return (T) new ResponseEntity<>(body, status);
-                } else {
-                    return (T) JsonUtils.toBean(responseStr, returnType);
-                }
+        if (!HttpStatus.OK.equals(status)) {
+            throw new HttpStatusException(status.value(), "execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, status.value());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("the method:[{}]return type is:[{}]", command.getMethodName(), methodSignature.getReturnType().getSimpleName());
+        }
+        if (methodSignature.isVoidResponse()) {
+            return null;
+        }
+        ResponseBody responseBody = response.body();
+        HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+        if (properties.isLogBody() && log.isDebugEnabled()) {
+            try {
+                // peek the capped body, the source is not consumed
+                log.debug("the okhttp url:[{}] response is:[{}]", url, response.peekBody(properties.getLogBodyMaxSize()).string());
+            } catch (IOException e) {
+                log.debug("peek the okhttp url:[{}] response exception", url, e);
             }
-        } else {
-            throw new HRpcException("execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, status.value());
         }
+        // decode from the socket stream directly
+        Object body = this.hrpcConfiguration.getJsonCodec().decode(methodSignature.getResponseReader(), responseBody.byteStream());
+        // handle The ResponseEntity and Optional
+        return (T) methodSignature.toResponse(body, status.value());
     }
 
     protected void preExecuteRequest(OkHttpClient client, Request request) {
@@ -155,6 +230,12 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
         return client;
     }
 
+    /**
+     * the hook before build the client,
+     * invoked once when the shared client of a service is created, not per call
+     *
+     * @param builder {@link OkHttpClient.Builder}
+     */
     protected void preBuildClient(OkHttpClient.Builder builder) {
         // do some for sub-class if necessary
     }
@@ -186,7 +267,10 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
     }
 
     public Request populateRequest(String url, String bodyStr, RequestMethod requestMethod, Map<String, String> headers) {
-        RequestBody body = RequestBody.create(JSON_APPLICATION, bodyStr);
+        return this.populateRequest(url, RequestBody.create(JSON_APPLICATION, bodyStr), requestMethod, headers);
+    }
+
+    public Request populateRequest(String url, RequestBody body, RequestMethod requestMethod, Map<String, String> headers) {
         Request.Builder builder = new Request.Builder().url(url);
         switch (requestMethod) {
             case GET:
@@ -215,21 +299,55 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
 
     // ======================================================================= CLIENT
 
-    public OkHttpClient.Builder determineClient(String url) throws RuntimeException {
-        OkHttpClient.Builder builder = this.populateOkHttpClient(url);
+    /**
+     * determine the shared client of the target service
+     *
+     * @param command the request command
+     * @return the cached {@link OkHttpClient}
+     * @since 1.1.0
+     */
+    public OkHttpClient determineClient(RequestCommand command) throws RuntimeException {
+        String key = OkHttpClientRegistry.determineKey(command.getService(), command.getProtocol());
 
-        return builder;
+        return this.clientRegistry.getClient(key, k -> this.createClient(command.getProtocol()));
+    }
+
+    /**
+     * create the client, only once for each key of the {@link OkHttpClientRegistry}
+     *
+     * @param protocol the request protocol
+     * @return {@link OkHttpClient}
+     * @since 1.1.0
+     */
+    protected OkHttpClient createClient(String protocol) {
+        OkHttpClient.Builder builder = this.populateOkHttpClient(protocol);
+
+        // hook
+        this.preBuildClient(builder);
+
+        return this.buildOkHttpClient(builder);
     }
 
-    public OkHttpClient.Builder populateOkHttpClient(final String url) {
-        OkHttpClient.Builder builder = new OkHttpClient()
-                .newBuilder()
+    public OkHttpClient.Builder populateOkHttpClient(final String protocol) {
+        HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+        OkHttpProperties okhttp = properties.getOkhttp();
+
+        // the calls of the dispatcher run on the virtual threads, in the virtual-threads mode
+        ExecutorService virtualThreadExecutor = this.hrpcConfiguration.getVirtualThreadExecutor();
+        Dispatcher dispatcher = null != virtualThreadExecutor ? new Dispatcher(virtualThreadExecutor) : new Dispatcher();
+        dispatcher.setMaxRequests(okhttp.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(okhttp.getMaxRequestsPerHost());
+        ConnectionPool connectionPool = new ConnectionPool(okhttp.getMaxIdleConnections(), okhttp.getKeepAliveDuration(), TimeUnit.SECONDS);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
                 .hostnameVerifier(this.hrpcConfiguration.getHostnameVerifier())
-                .connectTimeout(this.hrpcConfiguration.getHRpcClientProperties().getConnectTimeout(), TimeUnit.SECONDS)
-                .readTimeout(this.hrpcConfiguration.getHRpcClientProperties().getReadTimeout(), TimeUnit.SECONDS)
-                .writeTimeout(this.hrpcConfiguration.getHRpcClientProperties().getWriteTimeout(), TimeUnit.SECONDS);
+                .connectTimeout(properties.getConnectTimeout(), TimeUnit.SECONDS)
+                .readTimeout(properties.getReadTimeout(), TimeUnit.SECONDS)
+                .writeTimeout(properties.getWriteTimeout(), TimeUnit.SECONDS);
 
-        if (url.contains(HTTPS)) {
+        if (HTTPS.equalsIgnoreCase(protocol)) {
             SSLSocketFactory sslSocketFactory = this.createIgnoreVerifySSL();
             builder.sslSocketFactory(sslSocketFactory, this.hrpcConfiguration.getTrustManager());
         }
@@ -237,6 +355,11 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
         return builder;
     }
 
+    @Override
+    public void destroy() {
+        this.clientRegistry.close(this.hrpcConfiguration.getVirtualThreadExecutor());
+    }
+
     // ======================================================================= EXEC
 
     public Response executeRequest(OkHttpClient client, Request request) throws IOException {
@@ -267,7 +390,7 @@ public class OkHttpRequestExecutor implements IOkHttpRequestExecutor {
     public SSLSocketFactory createIgnoreVerifySSL() throws RuntimeException {
         SSLSocketFactory sslSocketFactory = null;
         try {
-            TrustManager[] tm = {new X509TrustManagerImpl()};
+            TrustManager[] tm = {this.hrpcConfiguration.getTrustManager()};
             // SSLContext sslContext = SSLContext.getInstance(HTTPS_SSL_V3, HTTPS_POST_SUNJSSE);
             SSLContext sslContext = SSLContext.getInstance(HTTPS_TLS);
             sslContext.init(null, tm, new SecureRandom());
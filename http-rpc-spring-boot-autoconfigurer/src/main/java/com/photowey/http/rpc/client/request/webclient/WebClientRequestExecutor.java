@@ -0,0 +1,277 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.webclient;
+
+import com.photowey.http.rpc.client.annotation.RequestExecutorMarker;
+import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
+import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.RequestCommand;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.config.HRpcConfiguration;
+import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.core.enums.ExecutorEnum;
+import com.photowey.http.rpc.core.exception.HRpcException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * WebClient RequestExecutor
+ * <p>
+ * the non-blocking executor on the Reactor Netty event loops,
+ * the Flux<T> is decoded incrementally from the JSON array or the NDJSON stream, with the backpressure
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@RequestExecutorMarker(value = ExecutorEnum.WEB_CLIENT)
+public class WebClientRequestExecutor implements IWebClientRequestExecutor {
+
+    protected static final Logger log = LoggerFactory.getLogger(WebClientRequestExecutor.class);
+
+    public static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
+    private static final DataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+
+    protected final HRpcConfiguration hrpcConfiguration;
+
+    protected final WebClient webClient;
+
+    /**
+     * the Flux<T> element decoder, tokenize the JSON array elements and the line-delimited JSON values
+     */
+    protected final Jackson2JsonDecoder decoder;
+
+    /**
+     * the Flux<T> element types
+     */
+    private final Map<MethodSignature, ResolvableType> elementTypes = new ConcurrentHashMap<>();
+
+    public WebClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
+        this.hrpcConfiguration = hrpcConfiguration;
+        this.decoder = new Jackson2JsonDecoder(hrpcConfiguration.getJsonCodec().getObjectMapper(),
+                MediaType.APPLICATION_JSON, MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON);
+        this.webClient = this.buildClient(hrpcConfiguration.getHRpcClientProperties());
+    }
+
+    /**
+     * build the shared {@link WebClient}, the connections are pooled by the Reactor Netty
+     *
+     * @param properties {@link HRpcClientProperties}
+     * @return {@link WebClient}
+     */
+    protected WebClient buildClient(HRpcClientProperties properties) {
+        HttpClient httpClient = HttpClient.create()
+                .tcpConfiguration(tcpClient -> tcpClient
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) TimeUnit.SECONDS.toMillis(properties.getConnectTimeout()))
+                        .doOnConnected(connection -> connection
+                                .addHandlerLast(new ReadTimeoutHandler(properties.getReadTimeout(), TimeUnit.SECONDS))
+                                .addHandlerLast(new WriteTimeoutHandler(properties.getWriteTimeout(), TimeUnit.SECONDS))));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * block on the response, for the plain methods only, never call it on the event loops
+     */
+    @Override
+    public <T> T execute(ClientMethod method, ClientRequest clientRequest) throws HRpcException, IOException {
+        Mono<T> mono = this.executeMono(method, clientRequest);
+        return mono.block();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(ClientMethod method, ClientRequest clientRequest) {
+        Mono<T> mono = this.executeMono(method, clientRequest);
+        return mono.toFuture();
+    }
+
+    @Override
+    public Object executeReactive(ClientMethod method, ClientRequest clientRequest) {
+        boolean cluster = null != clientRequest.getRoute();
+        if (method.getMethod().isFlux()) {
+            Flux<Object> flux = this.executeFlux(method, clientRequest);
+            if (!cluster) {
+                return flux;
+            }
+            return Flux.defer(() -> {
+                long start = method.beginCall(clientRequest);
+                // the error of this subscription, the cancelled call is not a failure
+                AtomicReference<Throwable> error = new AtomicReference<>();
+                return flux.doOnError(error::set)
+                        .doFinally(signal -> method.endCall(clientRequest, start, error.get()));
+            });
+        }
+
+        Mono<Object> mono = this.executeMono(method, clientRequest);
+        if (!cluster) {
+            return mono;
+        }
+        return Mono.defer(() -> {
+            long start = method.beginCall(clientRequest);
+            // the error of this subscription, the cancelled call is not a failure
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return mono.doOnError(error::set)
+                    .doFinally(signal -> method.endCall(clientRequest, start, error.get()));
+        });
+    }
+
+    /**
+     * aggregate the response body and decode it with the per-method reader
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param <T>
+     * @return {@link Mono}
+     */
+    protected <T> Mono<T> executeMono(ClientMethod method, ClientRequest clientRequest) {
+        MethodSignature methodSignature = method.getMethod();
+
+        return this.exchange(method, clientRequest).flatMap(response -> {
+            int status = response.rawStatusCode();
+            if (methodSignature.isVoidResponse()) {
+                return response.releaseBody().then(Mono.empty());
+            }
+
+            return DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()))
+                    .flatMap(buffer -> Mono.justOrEmpty(this.decode(methodSignature, buffer)))
+                    .map(body -> (T) methodSignature.toResponse(body, status))
+                    // the empty body, such as: Optional.empty()
+                    .switchIfEmpty(Mono.fromSupplier(() -> (T) methodSignature.toResponse(null, status)));
+        });
+    }
+
+    /**
+     * decode the elements as they arrive, the demand of the subscriber is propagated to the connection reads
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param <T>
+     * @return {@link Flux}
+     */
+    protected <T> Flux<T> executeFlux(ClientMethod method, ClientRequest clientRequest) {
+        MethodSignature methodSignature = method.getMethod();
+        ResolvableType elementType = this.elementTypes.computeIfAbsent(methodSignature,
+                (signature) -> ResolvableType.forType(signature.getGenericReturnType()).getGeneric(0));
+
+        return this.exchange(method, clientRequest).flatMapMany(response -> {
+            if (methodSignature.isVoidResponse()) {
+                return response.releaseBody().thenMany(Flux.empty());
+            }
+            MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+
+            return this.decoder.decode(response.body(BodyExtractors.toDataBuffers()), elementType, contentType, Collections.emptyMap())
+                    .map(element -> (T) element);
+        });
+    }
+
+    /**
+     * send the request and check the status, the body is left to the caller
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @return {@link Mono}
+     */
+    protected Mono<ClientResponse> exchange(ClientMethod method, ClientRequest clientRequest) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+        String url = clientRequest.getUrl();
+
+        RequestMethod requestMethod = command.getRequestMethod();
+        // the url is encoded by the url template already
+        WebClient.RequestBodySpec spec = this.webClient.method(HttpMethod.valueOf(requestMethod.name()))
+                .uri(URI.create(url))
+                .headers(headers -> clientRequest.getHeaderValues().forEach(headers::set));
+
+        Object requestBody = clientRequest.getRequestBody();
+        if (!RequestMethod.GET.equals(requestMethod) && HRpcUtils.isNotEmpty(requestBody)) {
+            JsonCodec jsonCodec = this.hrpcConfiguration.getJsonCodec();
+            // serialized on subscribe, into the buffer directly
+            Mono<DataBuffer> body = Mono.fromCallable(() -> this.encode(jsonCodec, methodSignature, requestBody));
+            spec.contentType(MediaType.APPLICATION_JSON).body(BodyInserters.fromDataBuffers(body));
+        }
+
+        return spec.exchange().flatMap(response -> {
+            HttpStatus status = HttpStatus.resolve(response.rawStatusCode());
+            if (!HttpStatus.OK.equals(status)) {
+                HRpcException cause = new HttpStatusException(response.rawStatusCode(), "execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, response.rawStatusCode());
+                return response.releaseBody().then(Mono.error(cause));
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("webclient:: the method:[{}]return type is:[{}]", command.getMethodName(), methodSignature.getReturnType().getSimpleName());
+            }
+
+            return Mono.just(response);
+        });
+    }
+
+    private DataBuffer encode(JsonCodec jsonCodec, MethodSignature methodSignature, Object requestBody) throws IOException {
+        DataBuffer buffer = BUFFER_FACTORY.allocateBuffer();
+        try (OutputStream out = buffer.asOutputStream()) {
+            jsonCodec.encode(methodSignature.getBodyWriter(), requestBody, out);
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private Object decode(MethodSignature methodSignature, DataBuffer buffer) {
+        // release the buffer when the stream closed
+        try (InputStream in = buffer.asInputStream(true)) {
+            return this.hrpcConfiguration.getJsonCodec().decode(methodSignature.getResponseReader(), in);
+        } catch (IOException e) {
+            throw new HRpcException("read the webclient response exception", e);
+        }
+    }
+}
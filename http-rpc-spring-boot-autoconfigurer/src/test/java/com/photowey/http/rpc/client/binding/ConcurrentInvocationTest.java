@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.binding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.photowey.http.rpc.client.annotation.EnableHRpcClients;
+import com.photowey.http.rpc.client.annotation.HRpcClient;
+import com.photowey.http.rpc.core.annotation.HttpPost;
+import com.photowey.http.rpc.core.enums.ExecutorEnum;
+import com.photowey.http.rpc.core.enums.HostTypeEnum;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ConcurrentInvocationTest
+ * <p>
+ * one proxy method is called from many threads, the url, the headers and the body of each call
+ * are echoed by a stub server, and must never mix with the other calls
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class ConcurrentInvocationTest {
+
+    private static final int THREADS = 32;
+    private static final int CALLS_PER_THREAD = 50;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo/", ConcurrentInvocationTest::echo);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutorEnum.class, names = {"OK_HTTP", "APACHE_HTTP_CLIENT", "WEB_CLIENT"})
+    void shouldNotMixTheCallStateOfConcurrentInvocations(ExecutorEnum executor) throws Exception {
+        try (ConfigurableApplicationContext context = start(executor)) {
+            EchoApi api = context.getBean(EchoApi.class);
+            Queue<String> mismatches = new ConcurrentLinkedQueue<>();
+            CountDownLatch ready = new CountDownLatch(1);
+            ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> futures = new ArrayList<>(THREADS);
+                for (int t = 0; t < THREADS; t++) {
+                    final int thread = t;
+                    futures.add(callers.submit(() -> {
+                        ready.await();
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            String call = thread + "-" + i;
+                            Echo echo = api.echo(call, "q" + call, "h" + call, new Payload("b" + call));
+                            Echo expected = new Echo("/echo/" + call, "q=q" + call, "h" + call, "b" + call);
+                            if (!expected.equals(echo)) {
+                                mismatches.add(expected + " != " + echo);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                ready.countDown();
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                callers.shutdownNow();
+            }
+
+            assertTrue(mismatches.isEmpty(), () -> executor + " mixed the calls: " + mismatches);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutorEnum.class, names = {"OK_HTTP"})
+    void shouldEchoASingleCall(ExecutorEnum executor) {
+        try (ConfigurableApplicationContext context = start(executor)) {
+            Echo echo = context.getBean(EchoApi.class).echo("a b", "x&y", "h", new Payload("中文"));
+
+            assertEquals(new Echo("/echo/a%20b", "q=x%26y", "h", "中文"), echo);
+        }
+    }
+
+    // =================================================================================================================
+
+    private static ConfigurableApplicationContext start(ExecutorEnum executor) {
+        return new SpringApplicationBuilder(EchoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "logging.level.root=WARN",
+                        "hrpc.client.executor-type=" + executor.name(),
+                        "hrpc.client.services[0].service=echo",
+                        "hrpc.client.services[0].routes[0].ip=127.0.0.1",
+                        "hrpc.client.services[0].routes[0].port=" + server.getAddress().getPort())
+                .run();
+    }
+
+    private static void echo(HttpExchange exchange) throws IOException {
+        Payload payload = MAPPER.readValue(read(exchange.getRequestBody()), Payload.class);
+        Echo echo = new Echo(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery(),
+                exchange.getRequestHeaders().getFirst("X-Call"), payload.getValue());
+        byte[] response = MAPPER.writeValueAsBytes(echo);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    // =================================================================================================================
+
+    /**
+     * not a {@literal @}Configuration, so the component scan of the framework does not pick it up
+     */
+    @EnableAutoConfiguration
+    @EnableHRpcClients(clients = EchoApi.class)
+    public static class EchoApplication {
+    }
+
+    @HRpcClient(value = "echo", targetProxy = "jdk")
+    interface EchoApi {
+
+        @HttpPost(protocol = "http", uri = "/echo/{id}", hostType = HostTypeEnum.DYNAMIC)
+        Echo echo(@PathVariable("id") String id, @RequestParam("q") String q,
+                  @RequestHeader("X-Call") String header, @RequestBody Payload payload);
+    }
+
+    static class Payload {
+
+        private String value;
+
+        Payload() {
+        }
+
+        Payload(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    static class Echo {
+
+        private String path;
+        private String query;
+        private String header;
+        private String body;
+
+        Echo() {
+        }
+
+        Echo(String path, String query, String header, String body) {
+            this.path = path;
+            this.query = query;
+            this.header = header;
+            this.body = body;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public void setQuery(String query) {
+            this.query = query;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Echo)) {
+                return false;
+            }
+            Echo that = (Echo) other;
+            return Objects.equals(this.path, that.path) && Objects.equals(this.query, that.query)
+                    && Objects.equals(this.header, that.header) && Objects.equals(this.body, that.body);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.path, this.query, this.header, this.body);
+        }
+
+        @Override
+        public String toString() {
+            return "Echo{" + this.path + "?" + this.query + ", " + this.header + ", " + this.body + "}";
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster;
+
+import com.photowey.http.rpc.client.annotation.EnableHRpcClients;
+import com.photowey.http.rpc.client.annotation.HRpcClient;
+import com.photowey.http.rpc.core.annotation.HttpGet;
+import com.photowey.http.rpc.core.enums.ClusterStrategyEnum;
+import com.photowey.http.rpc.core.enums.HostTypeEnum;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RouteDistributionTest
+ * <p>
+ * the DYNAMIC route is selected per invocation, so the calls of one proxy method spread across the stub servers
+ * by the cluster strategy
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class RouteDistributionTest {
+
+    private static final int SERVERS = 3;
+
+    private static final List<HttpServer> servers = new ArrayList<>(SERVERS);
+    private static final List<AtomicInteger> hits = new ArrayList<>(SERVERS);
+
+    private static ExecutorService serverExecutor;
+
+    @BeforeAll
+    static void startServers() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(SERVERS * 2);
+        for (int i = 0; i < SERVERS; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/ping/", exchange -> {
+                counter.incrementAndGet();
+                byte[] response = "\"pong\"".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            });
+            server.setExecutor(serverExecutor);
+            server.start();
+            servers.add(server);
+            hits.add(counter);
+        }
+    }
+
+    @AfterAll
+    static void stopServers() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+        serverExecutor.shutdownNow();
+    }
+
+    @BeforeEach
+    void resetHits() {
+        for (AtomicInteger counter : hits) {
+            counter.set(0);
+        }
+    }
+
+    @Test
+    void shouldSpreadThePollingEvenly() {
+        int[] counts = this.distribute(ClusterStrategyEnum.POLLING, new int[]{1, 1, 1}, 300);
+
+        assertEquals(100, counts[0]);
+        assertEquals(100, counts[1]);
+        assertEquals(100, counts[2]);
+    }
+
+    @Test
+    void shouldSpreadTheWeightPollingByTheWeights() {
+        int[] counts = this.distribute(ClusterStrategyEnum.WEIGHT_POLLING, new int[]{1, 2, 3}, 600);
+
+        assertEquals(100, counts[0]);
+        assertEquals(200, counts[1]);
+        assertEquals(300, counts[2]);
+    }
+
+    @Test
+    void shouldSpreadTheRandomEvenly() {
+        int calls = 3_000;
+        int[] counts = this.distribute(ClusterStrategyEnum.RANDOM, new int[]{1, 1, 1}, calls);
+
+        // the standard deviation of a share is below 0.009
+        for (int count : counts) {
+            assertEquals(1D / 3, count / (double) calls, 0.05D);
+        }
+    }
+
+    @Test
+    void shouldSpreadTheWeightRandomByTheWeights() {
+        int calls = 3_000;
+        int[] counts = this.distribute(ClusterStrategyEnum.WEIGHT_RANDOM, new int[]{1, 2, 3}, calls);
+
+        assertEquals(1D / 6, counts[0] / (double) calls, 0.05D);
+        assertEquals(2D / 6, counts[1] / (double) calls, 0.05D);
+        assertEquals(3D / 6, counts[2] / (double) calls, 0.05D);
+    }
+
+    // =================================================================================================================
+
+    private int[] distribute(ClusterStrategyEnum strategy, int[] weights, int calls) {
+        List<String> properties = new ArrayList<>();
+        properties.add("logging.level.root=WARN");
+        properties.add("hrpc.client.cluster-strategy=" + strategy.name());
+        properties.add("hrpc.client.services[0].service=ping");
+        for (int i = 0; i < SERVERS; i++) {
+            String route = "hrpc.client.services[0].routes[" + i + "].";
+            properties.add(route + "ip=127.0.0.1");
+            properties.add(route + "port=" + servers.get(i).getAddress().getPort());
+            properties.add(route + "weight=" + weights[i]);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .run()) {
+            PingApi api = context.getBean(PingApi.class);
+            for (int i = 0; i < calls; i++) {
+                assertEquals("pong", api.ping(i));
+            }
+        }
+
+        int[] counts = new int[SERVERS];
+        for (int i = 0; i < SERVERS; i++) {
+            counts[i] = hits.get(i).get();
+        }
+
+        return counts;
+    }
+
+    /**
+     * not a {@literal @}Configuration, so the component scan of the framework does not pick it up
+     */
+    @EnableAutoConfiguration
+    @EnableHRpcClients(clients = PingApi.class)
+    public static class PingApplication {
+    }
+
+    @HRpcClient(value = "ping", targetProxy = "jdk")
+    interface PingApi {
+
+        @HttpGet(protocol = "http", uri = "/ping/{id}", hostType = HostTypeEnum.DYNAMIC)
+        String ping(@PathVariable("id") Integer id);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster;
+
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ServiceRoutes
+ * <p>
+ * the route fixtures of the cluster tests and benchmarks, the route N is 10.0.0.N:8080
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public final class ServiceRoutes {
+
+    private ServiceRoutes() {
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * the routes with the weights
+     *
+     * @param weights the weight of each route
+     * @return the routes
+     */
+    public static List<ServiceRoute> of(int... weights) {
+        List<ServiceRoute> routes = new ArrayList<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            ServiceRoute route = route(i);
+            route.setWeight(weights[i]);
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    /**
+     * the routes with the default weight
+     *
+     * @param size the count of the routes
+     * @return the routes
+     */
+    public static List<ServiceRoute> ofSize(int size) {
+        List<ServiceRoute> routes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            routes.add(route(i));
+        }
+
+        return routes;
+    }
+
+    private static ServiceRoute route(int index) {
+        ServiceRoute route = new ServiceRoute();
+        route.setIp("10.0.0." + (index + 1));
+        route.setPort(8080);
+
+        return route;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.photowey.http.rpc.client.properties.CircuitBreakerProperties;
+import com.photowey.http.rpc.core.enums.CircuitBreakerStateEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CircuitBreakerTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void shouldStayClosedBeforeTheMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(0, 3));
+
+        call(breaker, false, 4);
+
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldOpenOnTheFailureRateOnceTheMinimumCallsReached() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(30, 3));
+
+        call(breaker, true, 3);
+        call(breaker, false, 2);
+        // 2 of 5, below the 50%
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+
+        call(breaker, false, 1);
+        // 3 of 6
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertFalse(breaker.isSelectable(System.nanoTime()));
+    }
+
+    @Test
+    void shouldOpenOnTheSlowCallRate() {
+        CircuitBreakerProperties properties = properties(30, 3);
+        properties.setFailureRateThreshold(0);
+        properties.setSlowCallRateThreshold(50);
+        CircuitBreaker breaker = new CircuitBreaker("test", properties);
+
+        // the failures alone never open it, the failure rate is disabled
+        call(breaker, false, FAST, 5);
+        call(breaker, true, FAST, 5);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+
+        // 5 of 10 slow, though succeed
+        call(breaker, true, SLOW, 5);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldHalfOpenOnlyAfterTheWaitDuration() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(1, 3));
+        call(breaker, false, 5);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+
+        TimeUnit.MILLISECONDS.sleep(1_100);
+        assertTrue(breaker.isSelectable(System.nanoTime()));
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldCloseByTheLastTrialCall() {
+        CircuitBreaker breaker = this.halfOpen(3);
+
+        long[] permits = acquire(breaker, 3);
+        // the trial permits are used up
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertFalse(breaker.isSelectable(System.nanoTime()));
+
+        breaker.onResult(permits[0], FAST, true);
+        breaker.onResult(permits[1], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(permits[2], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldReopenByTheLastTrialCall() {
+        CircuitBreaker breaker = this.halfOpen(3);
+
+        long[] permits = acquire(breaker, 3);
+        breaker.onResult(permits[0], FAST, false);
+        breaker.onResult(permits[1], FAST, false);
+        // the rate is exceeded already, but only the last trial call decides
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(permits[2], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldDecideTheTrialCallsOnlyOnce() {
+        CircuitBreaker breaker = this.halfOpen(2);
+
+        long[] permits = acquire(breaker, 2);
+        breaker.onResult(permits[0], FAST, true);
+        breaker.onResult(permits[1], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+
+        // the duplicated outcomes of the decided trial calls are dropped, not counted in the new window
+        for (int i = 0; i < 10; i++) {
+            breaker.onResult(permits[0], FAST, false);
+        }
+        call(breaker, false, 4);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldDropAStaleClosedPermitInHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(0, 2));
+        long stale = breaker.tryAcquirePermission();
+        call(breaker, false, 5);
+        long[] permits = acquire(breaker, 2);
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+
+        // the late outcome of the call permitted in the CLOSED state, not a trial call
+        breaker.onResult(stale, FAST, true);
+        breaker.onResult(permits[0], FAST, false);
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(permits[1], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldDropAStaleClosedPermitOfAnEarlierGeneration() {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(0, 1));
+        // the calls permitted before the breaker opened
+        long[] stale = acquire(breaker, 4);
+        call(breaker, false, 5);
+        long trial = breaker.tryAcquirePermission();
+        breaker.onResult(trial, FAST, true);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+
+        // CLOSED again, but the late outcomes are not in the new window
+        for (long permit : stale) {
+            breaker.onResult(permit, FAST, false);
+        }
+        call(breaker, false, 1);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldDropAStaleTrialPermitOfAnEarlierRound() {
+        CircuitBreaker breaker = this.halfOpen(2);
+        long[] first = acquire(breaker, 2);
+        breaker.onResult(first[0], FAST, false);
+        breaker.onResult(first[1], FAST, false);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+
+        long[] second = acquire(breaker, 2);
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+        // the duplicated outcome of the first round is not a trial call of the second one
+        breaker.onResult(first[0], FAST, false);
+        breaker.onResult(second[0], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(second[1], FAST, true);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldNotifyTheListenerWhenTheRouteBecomeSelectableOrNot() {
+        AtomicInteger notified = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(0, 1), notified::incrementAndGet);
+
+        call(breaker, false, 5);
+        // CLOSED -> OPEN
+        assertEquals(1, notified.get());
+
+        long permit = breaker.tryAcquirePermission();
+        // the last trial permit taken
+        assertEquals(2, notified.get());
+
+        breaker.onResult(permit, FAST, true);
+        // HALF_OPEN -> CLOSED
+        assertEquals(3, notified.get());
+    }
+
+    // =================================================================================================================
+
+    /**
+     * the sliding window of 10 calls, at least 5 calls, open at the 50% failure rate
+     */
+    private static CircuitBreakerProperties properties(int waitSeconds, int permittedCallsInHalfOpenState) {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setEnabled(true);
+        properties.setSlidingWindowSize(10);
+        properties.setMinimumCalls(5);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallRateThreshold(100);
+        properties.setSlowCallDurationThreshold(100L);
+        properties.setWaitDurationInOpenState(waitSeconds);
+        properties.setPermittedCallsInHalfOpenState(permittedCallsInHalfOpenState);
+
+        return properties;
+    }
+
+    /**
+     * open the breaker without the wait duration, so the next permission transitions it to the HALF_OPEN
+     */
+    private CircuitBreaker halfOpen(int permittedCallsInHalfOpenState) {
+        CircuitBreaker breaker = new CircuitBreaker("test", properties(0, permittedCallsInHalfOpenState));
+        call(breaker, false, 5);
+        assertEquals(CircuitBreakerStateEnum.OPEN, breaker.getState());
+
+        return breaker;
+    }
+
+    private static long[] acquire(CircuitBreaker breaker, int count) {
+        long[] permits = new long[count];
+        for (int i = 0; i < count; i++) {
+            permits[i] = breaker.tryAcquirePermission();
+            assertNotEquals(CircuitBreaker.NOT_PERMITTED, permits[i]);
+        }
+
+        return permits;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean success, int count) {
+        call(breaker, success, FAST, count);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean success, long durationNanos, int count) {
+        for (int i = 0; i < count; i++) {
+            breaker.onResult(breaker.tryAcquirePermission(), durationNanos, success);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.health;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.CircuitBreakerProperties;
+import com.photowey.http.rpc.client.properties.HealthCheckProperties;
+import com.photowey.http.rpc.client.properties.ServiceInfo;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import com.photowey.http.rpc.core.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ServiceHealthTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class ServiceHealthTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shouldEjectTheFailingRoute() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(3);
+        ServiceHealth health = new ServiceHealth(service(routes, null), healthCheck(50, 30));
+
+        fail(health, routes.get(1));
+
+        assertEquals(Arrays.asList(routes.get(0), routes.get(2)), health.routes());
+    }
+
+    @Test
+    void shouldRespectTheMaxEjectionPercent() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(4);
+        ServiceHealth health = new ServiceHealth(service(routes, null), healthCheck(50, 30));
+
+        fail(health, routes.get(0));
+        fail(health, routes.get(1));
+        fail(health, routes.get(2));
+
+        // 50% of 4, the third failing route is kept
+        assertEquals(Arrays.asList(routes.get(2), routes.get(3)), health.routes());
+    }
+
+    @Test
+    void shouldNeverEjectIfTheMaxEjectionPercentIsZero() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(4);
+        ServiceHealth health = new ServiceHealth(service(routes, null), healthCheck(0, 30));
+
+        fail(health, routes.get(0));
+
+        assertSame(routes, health.routes());
+    }
+
+    @Test
+    void shouldRoundTheMaxEjectionsDown() {
+        assertEquals(1, ServiceHealth.determineMaxEjections(3, 50));
+        assertEquals(2, ServiceHealth.determineMaxEjections(5, 50));
+        // at least one, if the percent is positive
+        assertEquals(1, ServiceHealth.determineMaxEjections(2, 10));
+        assertEquals(4, ServiceHealth.determineMaxEjections(4, 150));
+        assertEquals(0, ServiceHealth.determineMaxEjections(4, 0));
+        assertEquals(0, ServiceHealth.determineMaxEjections(0, 50));
+    }
+
+    @Test
+    void shouldReadmitTheRouteOnceTheEjectionExpired() throws InterruptedException {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(2);
+        ServiceHealth health = new ServiceHealth(service(routes, null), healthCheck(50, 1));
+
+        fail(health, routes.get(0));
+        assertEquals(Arrays.asList(routes.get(1)), health.routes());
+
+        TimeUnit.MILLISECONDS.sleep(1_100);
+        assertSame(routes, health.routes());
+    }
+
+    @Test
+    void shouldFallBackToAllTheRoutesIfNoneIsHealthy() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(2);
+        ServiceHealth health = new ServiceHealth(service(routes, null), healthCheck(100, 30));
+
+        fail(health, routes.get(0));
+        assertEquals(Arrays.asList(routes.get(1)), health.routes());
+
+        fail(health, routes.get(1));
+        assertFalse(routes.get(0).health().isHealthy(System.nanoTime()));
+        assertFalse(routes.get(1).health().isHealthy(System.nanoTime()));
+        assertSame(routes, health.routes());
+    }
+
+    @Test
+    void shouldNotSelectTheRouteOfTheOpenCircuitBreaker() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(2);
+        CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+        circuitBreaker.setEnabled(true);
+        circuitBreaker.setMinimumCalls(1);
+        circuitBreaker.setWaitDurationInOpenState(30);
+        HealthCheckProperties healthCheck = healthCheck(50, 30);
+        healthCheck.setEnabled(false);
+        ServiceHealth health = new ServiceHealth(service(routes, circuitBreaker), healthCheck);
+
+        fail(health, routes.get(0));
+
+        assertEquals(Arrays.asList(routes.get(1)), health.routes());
+        assertThrows(CircuitBreakerOpenException.class, () -> health.acquirePermission(routes.get(0)));
+    }
+
+    // =================================================================================================================
+
+    private static ServiceInfo service(List<ServiceRoute> routes, CircuitBreakerProperties circuitBreaker) {
+        ServiceInfo serviceInfo = new ServiceInfo();
+        serviceInfo.setService("order");
+        serviceInfo.setRoutes(routes);
+        serviceInfo.setCircuitBreaker(circuitBreaker);
+
+        return serviceInfo;
+    }
+
+    /**
+     * a route is ejected by its first failure, the failure rate is not evaluated
+     */
+    private static HealthCheckProperties healthCheck(int maxEjectionPercent, int ejectionSeconds) {
+        HealthCheckProperties healthCheck = new HealthCheckProperties();
+        healthCheck.setConsecutiveFailures(1);
+        healthCheck.setFailureRateThreshold(0);
+        healthCheck.setMaxEjectionPercent(maxEjectionPercent);
+        healthCheck.setEjectionTime(ejectionSeconds);
+
+        return healthCheck;
+    }
+
+    private static void fail(ServiceHealth health, ServiceRoute route) {
+        health.record(route, health.acquirePermission(route), FAST, false);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RouteStatsTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class RouteStatsTest {
+
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldCountTheInFlightCalls() {
+        RouteStats stats = new RouteStats();
+        long first = stats.begin();
+        long second = stats.begin();
+        assertEquals(2L, stats.active());
+
+        stats.end(first, true);
+        stats.end(second, false);
+        assertEquals(0L, stats.active());
+    }
+
+    @Test
+    void shouldScoreANeverObservedRouteByTheInFlightCalls() {
+        RouteStats stats = new RouteStats();
+        assertEquals(1D, stats.score());
+
+        stats.begin();
+        stats.begin();
+        assertEquals(3D, stats.score());
+    }
+
+    @Test
+    void shouldObserveAFastFailureAsThePenalty() {
+        RouteStats stats = new RouteStats();
+        stats.end(stats.begin(), false);
+
+        // refused at once, but observed as at least one second
+        assertTrue(stats.latency() > 0.9D * SECOND, "latency " + stats.latency());
+    }
+
+    @Test
+    void shouldBoundTheCompoundedPenalty() {
+        RouteStats stats = new RouteStats();
+        for (int i = 0; i < 10; i++) {
+            stats.end(stats.begin(), false);
+        }
+
+        // 1s, 4s, 16s, then capped at 30s
+        double latency = stats.latency();
+        assertTrue(latency > 29D * SECOND && latency <= 30D * SECOND, "latency " + latency);
+    }
+
+    @Test
+    void shouldKeepThePeakOverTheFastSuccesses() {
+        RouteStats stats = new RouteStats();
+        stats.end(stats.begin(), false);
+        for (int i = 0; i < 100; i++) {
+            stats.end(stats.begin(), true);
+        }
+
+        // the fast samples are blended by the 10s decay, the penalty is not forgotten at once
+        assertTrue(stats.latency() > 0.9D * SECOND, "latency " + stats.latency());
+    }
+}
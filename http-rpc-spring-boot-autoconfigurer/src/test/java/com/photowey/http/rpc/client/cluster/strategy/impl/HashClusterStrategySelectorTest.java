@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HashClusterStrategySelectorTest
+ * <p>
+ * the ring is built from the MD5 of the hosts and the keys, so the assertions are deterministic
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class HashClusterStrategySelectorTest {
+
+    private static final int KEYS = 10_000;
+    private static final int NODES = 5;
+
+    @Test
+    void shouldRouteTheSameKeyToTheSameHost() {
+        HashClusterStrategySelector selector = new HashClusterStrategySelector();
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(NODES);
+
+        for (int i = 0; i < 100; i++) {
+            String key = "user-" + i;
+            ServiceRoute first = selector.select("service", routes, key);
+            // a rebuilt ring of the same hosts agree
+            ServiceRoute rebuilt = new HashClusterStrategySelector.HashRing(ServiceRoutes.ofSize(NODES)).select(key);
+
+            assertSame(first, selector.select("service", routes, key));
+            assertEquals(first.toHost(), rebuilt.toHost());
+        }
+    }
+
+    @Test
+    void shouldBalanceTheKeysAcrossTheHosts() {
+        Map<String, Integer> counts = new HashMap<>();
+        HashClusterStrategySelector.HashRing ring = new HashClusterStrategySelector.HashRing(ServiceRoutes.ofSize(NODES));
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.select("user-" + i).toHost(), 1, Integer::sum);
+        }
+
+        assertEquals(NODES, counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            double share = entry.getValue() / (double) KEYS;
+            assertTrue(share > 0.12D && share < 0.28D, entry.getKey() + " owns " + share);
+        }
+    }
+
+    @Test
+    void shouldRemapOnlyTheKeysOfTheRemovedHost() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(NODES);
+        HashClusterStrategySelector.HashRing before = new HashClusterStrategySelector.HashRing(routes);
+        String removed = routes.get(2).toHost();
+        List<ServiceRoute> remaining = new ArrayList<>(routes);
+        remaining.remove(2);
+        HashClusterStrategySelector.HashRing after = new HashClusterStrategySelector.HashRing(remaining);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String from = before.select(key).toHost();
+            String to = after.select(key).toHost();
+            if (removed.equals(from)) {
+                moved++;
+            } else {
+                assertEquals(from, to, "the key:" + key + " of a remaining host is kept");
+            }
+        }
+
+        // about 1/N of the keys
+        double share = moved / (double) KEYS;
+        assertTrue(share > 0.12D && share < 0.28D, "moved " + share);
+    }
+
+    @Test
+    void shouldMoveKeysOnlyToTheAddedHost() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(NODES);
+        HashClusterStrategySelector.HashRing before = new HashClusterStrategySelector.HashRing(routes);
+        List<ServiceRoute> grown = ServiceRoutes.ofSize(NODES + 1);
+        HashClusterStrategySelector.HashRing after = new HashClusterStrategySelector.HashRing(grown);
+        String added = grown.get(NODES).toHost();
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String from = before.select(key).toHost();
+            String to = after.select(key).toHost();
+            if (!from.equals(to)) {
+                assertEquals(added, to, "the key:" + key + " moves to the added host only");
+                moved++;
+            }
+        }
+
+        double share = moved / (double) KEYS;
+        assertTrue(share > 0.10D && share < 0.24D, "moved " + share);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * LeastActiveClusterStrategySelectorTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class LeastActiveClusterStrategySelectorTest {
+
+    private final LeastActiveClusterStrategySelector selector = new LeastActiveClusterStrategySelector();
+
+    @Test
+    void shouldSelectTheRouteWithTheFewestInFlightCalls() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1, 1);
+        begin(routes.get(0), 3);
+        begin(routes.get(1), 1);
+        begin(routes.get(2), 2);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(routes.get(1), this.selector.select(routes));
+        }
+    }
+
+    @Test
+    void shouldIgnoreTheWeightOfABusierRoute() {
+        List<ServiceRoute> routes = ServiceRoutes.of(100, 1);
+        begin(routes.get(0), 1);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(routes.get(1), this.selector.select(routes));
+        }
+    }
+
+    @Test
+    void shouldFollowTheCallsAsTheyEnd() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1);
+        long start = routes.get(0).stats().begin();
+        assertSame(routes.get(1), this.selector.select(routes));
+
+        routes.get(0).stats().end(start, true);
+        begin(routes.get(1), 1);
+
+        assertSame(routes.get(0), this.selector.select(routes));
+    }
+
+    @Test
+    void shouldBreakTheTiesByTheWeights() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 3, 0, 5);
+        // the route 3 is busier, the ties are the routes 0, 1 and 2, the weight 0 is treated as 1
+        begin(routes.get(3), 1);
+        int draws = 100_000;
+
+        Map<ServiceRoute, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(this.selector.select(routes), 1, Integer::sum);
+        }
+
+        assertEquals(0, counts.getOrDefault(routes.get(3), 0).intValue());
+        assertEquals(0.2D, counts.get(routes.get(0)) / (double) draws, 0.01D);
+        assertEquals(0.6D, counts.get(routes.get(1)) / (double) draws, 0.01D);
+        assertEquals(0.2D, counts.get(routes.get(2)) / (double) draws, 0.01D);
+    }
+
+    // =================================================================================================================
+
+    private static void begin(ServiceRoute route, int calls) {
+        for (int i = 0; i < calls; i++) {
+            route.stats().begin();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * P2cEwmaClusterStrategySelectorTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class P2cEwmaClusterStrategySelectorTest {
+
+    private final P2cEwmaClusterStrategySelector selector = new P2cEwmaClusterStrategySelector();
+
+    @Test
+    void shouldAvoidTheRouteWithTheFailurePenalty() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(2);
+        fail(routes.get(0));
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(routes.get(1), this.selector.select(routes));
+        }
+    }
+
+    @Test
+    void shouldAvoidTheBusierRoute() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(2);
+        begin(routes.get(1), 2);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(routes.get(0), this.selector.select(routes));
+        }
+    }
+
+    @Test
+    void shouldDivideTheScoreByTheWeight() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 4);
+        // the same in-flight calls, the heavier route scores 4 / 4 against 4 / 1
+        begin(routes.get(0), 3);
+        begin(routes.get(1), 3);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(routes.get(1), this.selector.select(routes));
+        }
+    }
+
+    @Test
+    void shouldSampleTwoDistinctRoutes() {
+        List<ServiceRoute> routes = ServiceRoutes.ofSize(3);
+        // the worst route loses any pair it's in, it's selected only if sampled twice
+        fail(routes.get(0));
+
+        Map<ServiceRoute, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            counts.merge(this.selector.select(routes), 1, Integer::sum);
+        }
+
+        assertFalse(counts.containsKey(routes.get(0)));
+        assertEquals(2, counts.size());
+    }
+
+    // =================================================================================================================
+
+    private static void fail(ServiceRoute route) {
+        route.stats().end(route.stats().begin(), false);
+    }
+
+    private static void begin(ServiceRoute route, int calls) {
+        for (int i = 0; i < calls; i++) {
+            route.stats().begin();
+        }
+    }
+}
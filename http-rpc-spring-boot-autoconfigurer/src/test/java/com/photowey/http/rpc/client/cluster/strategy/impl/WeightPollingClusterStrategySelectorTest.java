@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WeightPollingClusterStrategySelectorTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class WeightPollingClusterStrategySelectorTest {
+
+    private final WeightPollingClusterStrategySelector selector = new WeightPollingClusterStrategySelector();
+
+    @Test
+    void shouldInterleaveTheHeavyRouteLikeNginx() {
+        int[] sequence = WeightPollingClusterStrategySelector.SmoothTable.smooth(new int[]{5, 1, 1});
+
+        // a a b a c a a
+        assertArrayEquals(new int[]{0, 0, 1, 0, 2, 0, 0}, sequence);
+    }
+
+    @Test
+    void shouldSelectExactlyByTheWeightsInEachRound() {
+        List<ServiceRoute> routes = ServiceRoutes.of(3, 1, 6);
+        int rounds = 100;
+
+        Map<ServiceRoute, Integer> counts = this.count("service", routes, 10 * rounds);
+
+        assertEquals(3 * rounds, counts.get(routes.get(0)).intValue());
+        assertEquals(rounds, counts.get(routes.get(1)).intValue());
+        assertEquals(6 * rounds, counts.get(routes.get(2)).intValue());
+    }
+
+    @Test
+    void shouldReduceTheWeightsByTheGcd() {
+        assertArrayEquals(new int[]{1, 2, 3}, WeightPollingClusterStrategySelector.SmoothTable.normalize(new int[]{100, 200, 300}));
+        // the non-positive weight is treated as 1
+        assertArrayEquals(new int[]{1, 1, 2}, WeightPollingClusterStrategySelector.SmoothTable.normalize(new int[]{0, -1, 2}));
+    }
+
+    @Test
+    void shouldScaleDownTheTooLongRound() {
+        int[] normalized = WeightPollingClusterStrategySelector.SmoothTable.normalize(new int[]{1_000_000, 999_999, 1});
+        int total = Arrays.stream(normalized).sum();
+
+        assertTrue(total <= WeightPollingClusterStrategySelector.MAX_SEQUENCE_LENGTH, "the round is bounded: " + total);
+        // the proportion is kept, and the light route is still selected
+        assertEquals(1D, (double) normalized[0] / normalized[1], 0.001D);
+        assertEquals(1, normalized[2]);
+    }
+
+    @Test
+    void shouldKeepTheRoundOfEachServiceApart() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1);
+
+        ServiceRoute first = this.selector.select("a", routes);
+        // another service does not advance the round of the service a
+        this.selector.select("b", routes);
+        ServiceRoute second = this.selector.select("a", routes);
+
+        assertTrue(first != second, "the service a alternates its routes");
+    }
+
+    @Test
+    void shouldRebuildTheRoundWhenTheWeightsChange() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1);
+        this.count("service", routes, 10);
+
+        routes.get(0).setWeight(3);
+        Map<ServiceRoute, Integer> counts = this.count("service", routes, 400);
+
+        assertEquals(300, counts.get(routes.get(0)).intValue());
+        assertEquals(100, counts.get(routes.get(1)).intValue());
+    }
+
+    // =================================================================================================================
+
+    private Map<ServiceRoute, Integer> count(String service, List<ServiceRoute> routes, int calls) {
+        Map<ServiceRoute, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < calls; i++) {
+            counts.merge(this.selector.select(service, routes), 1, Integer::sum);
+        }
+
+        return counts;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.cluster.strategy.impl;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WeightRandomClusterStrategySelectorTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class WeightRandomClusterStrategySelectorTest {
+
+    private final WeightRandomClusterStrategySelector selector = new WeightRandomClusterStrategySelector();
+
+    @Test
+    void shouldBuildTheExactProbabilitiesOfTheWeights() {
+        int[] weights = {1, 2, 3, 4, 10, 0};
+        WeightRandomClusterStrategySelector.AliasTable table = new WeightRandomClusterStrategySelector.AliasTable(ServiceRoutes.of(weights));
+
+        // the probability of a route: its own column, plus the rest of the columns aliased to it, of the n columns
+        double[] expected = {1D / 21, 2D / 21, 3D / 21, 4D / 21, 10D / 21, 1D / 21};
+        int n = weights.length;
+        double[] actual = new double[n];
+        for (int column = 0; column < n; column++) {
+            actual[column] += table.probability[column] / n;
+            actual[table.alias[column]] += (1D - table.probability[column]) / n;
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected[i], actual[i], 1e-12, "the route:" + i);
+        }
+    }
+
+    @Test
+    void shouldDrawByTheWeights() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 3, 6);
+        int draws = 200_000;
+
+        Map<ServiceRoute, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(this.selector.select("service", routes), 1, Integer::sum);
+        }
+
+        // the standard deviation of the shares is below 0.0012, the tolerance is far beyond
+        assertEquals(0.1D, share(counts, routes.get(0), draws), 0.01D);
+        assertEquals(0.3D, share(counts, routes.get(1), draws), 0.01D);
+        assertEquals(0.6D, share(counts, routes.get(2), draws), 0.01D);
+    }
+
+    @Test
+    void shouldSelectTheLastRoute() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1);
+
+        boolean last = false;
+        for (int i = 0; i < 1_000 && !last; i++) {
+            last = routes.get(1) == this.selector.select("service", routes);
+        }
+
+        assertTrue(last, "the last route is selectable");
+    }
+
+    @Test
+    void shouldRebuildTheTableWhenTheWeightsChange() {
+        List<ServiceRoute> routes = ServiceRoutes.of(1, 1);
+        this.selector.select("service", routes);
+
+        routes.get(0).setWeight(0);
+        routes.get(1).setWeight(9);
+        int draws = 100_000;
+        Map<ServiceRoute, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(this.selector.select("service", routes), 1, Integer::sum);
+        }
+
+        assertEquals(0.9D, share(counts, routes.get(1), draws), 0.01D);
+    }
+
+    // =================================================================================================================
+
+    private static double share(Map<ServiceRoute, Integer> counts, ServiceRoute route, int total) {
+        return counts.getOrDefault(route, 0) / (double) total;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.okhttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.codec.PayloadSizeHint;
+import okhttp3.MediaType;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JsonRequestBodyTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class JsonRequestBodyTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCodec jsonCodec = new JsonCodec(this.objectMapper);
+    private final ObjectWriter writer = this.jsonCodec.writerFor(Object.class);
+
+    @Test
+    void shouldBufferTheSmallPayloadWithTheContentLength() throws IOException {
+        PayloadSizeHint hint = new PayloadSizeHint();
+        Map<String, String> payload = Collections.singletonMap("name", "photowey");
+
+        JsonRequestBody body = new JsonRequestBody(JSON, this.jsonCodec, this.writer, hint, payload);
+
+        String json = this.objectMapper.writeValueAsString(payload);
+        assertEquals(json.length(), body.contentLength());
+        assertEquals(json, write(body));
+        assertFalse(hint.isLarge());
+    }
+
+    @Test
+    void shouldStreamThePayloadOnceTheMethodSentALargeOne() throws IOException {
+        PayloadSizeHint hint = new PayloadSizeHint();
+        Map<String, String> large = Collections.singletonMap("value", repeat('x', JsonCodec.POOLED_BUFFER_LIMIT));
+
+        // the first large payload is still buffered, it teaches the hint
+        JsonRequestBody buffered = new JsonRequestBody(JSON, this.jsonCodec, this.writer, hint, large);
+        assertTrue(buffered.contentLength() > JsonCodec.POOLED_BUFFER_LIMIT);
+        assertTrue(hint.isLarge());
+
+        JsonRequestBody streamed = new JsonRequestBody(JSON, this.jsonCodec, this.writer, hint, large);
+        assertEquals(-1L, streamed.contentLength());
+        assertEquals(this.objectMapper.writeValueAsString(large), write(streamed));
+        assertTrue(hint.isLarge());
+    }
+
+    @Test
+    void shouldBufferAgainOnceTheStreamedPayloadShrinks() throws IOException {
+        PayloadSizeHint hint = new PayloadSizeHint();
+        hint.record(JsonCodec.POOLED_BUFFER_LIMIT + 1);
+        Map<String, String> small = Collections.singletonMap("name", "photowey");
+
+        JsonRequestBody streamed = new JsonRequestBody(JSON, this.jsonCodec, this.writer, hint, small);
+        assertEquals(-1L, streamed.contentLength());
+        write(streamed);
+        assertFalse(hint.isLarge());
+
+        JsonRequestBody buffered = new JsonRequestBody(JSON, this.jsonCodec, this.writer, hint, small);
+        assertEquals(this.objectMapper.writeValueAsString(small).length(), buffered.contentLength());
+    }
+
+    private static String write(JsonRequestBody body) throws IOException {
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+
+        return sink.readUtf8();
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+
+        return new String(chars);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.benchmark;
+
+import com.photowey.http.rpc.client.cluster.ServiceRoutes;
+import com.photowey.http.rpc.client.cluster.strategy.impl.PollingClusterStrategySelector;
+import com.photowey.http.rpc.client.cluster.strategy.impl.WeightPollingClusterStrategySelector;
+import com.photowey.http.rpc.client.properties.ServiceRoute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PollingContentionBenchmark
+ * <p>
+ * the lock-free polling selectors against the former {@link ReentrantLock} polling selector,
+ * selected by 64 threads at the same time
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class PollingContentionBenchmark {
+
+    private static final String SERVICE = "order";
+
+    private final List<ServiceRoute> routes = ServiceRoutes.of(1, 2, 3, 4);
+
+    private final PollingClusterStrategySelector polling = new PollingClusterStrategySelector();
+    private final WeightPollingClusterStrategySelector weightPolling = new WeightPollingClusterStrategySelector();
+
+    private final LockedPollingSelector lockedPolling = new LockedPollingSelector(false);
+    private final LockedPollingSelector lockedWeightPolling = new LockedPollingSelector(true);
+
+    @Benchmark
+    public ServiceRoute polling() {
+        return this.polling.doSelect(SERVICE, this.routes);
+    }
+
+    @Benchmark
+    public ServiceRoute lockedPolling() {
+        return this.lockedPolling.doSelect(this.routes);
+    }
+
+    @Benchmark
+    public ServiceRoute weightPolling() {
+        return this.weightPolling.doSelect(SERVICE, this.routes);
+    }
+
+    @Benchmark
+    public ServiceRoute lockedWeightPolling() {
+        return this.lockedWeightPolling.doSelect(this.routes);
+    }
+
+    /**
+     * the former AbstractPollingClusterStrategySelector, one lock and one index shared by all the services,
+     * the weighted list is expanded per selection
+     */
+    static class LockedPollingSelector {
+
+        private final boolean weighted;
+        private final Lock lock = new ReentrantLock();
+        private int selector = 0;
+
+        LockedPollingSelector(boolean weighted) {
+            this.weighted = weighted;
+        }
+
+        ServiceRoute doSelect(List<ServiceRoute> routes) {
+            ServiceRoute target = null;
+            try {
+                this.lock.tryLock(10, TimeUnit.SECONDS);
+
+                List<ServiceRoute> reset = this.weighted ? expand(routes) : routes;
+                if (this.selector >= reset.size()) {
+                    this.selector = 0;
+                }
+                target = reset.get(this.selector);
+                this.selector++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.lock.unlock();
+            }
+
+            return null == target ? routes.get(0) : target;
+        }
+
+        private static List<ServiceRoute> expand(List<ServiceRoute> routes) {
+            List<ServiceRoute> reset = new ArrayList<>();
+            for (ServiceRoute route : routes) {
+                for (int i = 0; i < route.getWeight(); i++) {
+                    reset.add(route);
+                }
+            }
+
+            return reset;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.RequestCommand;
+import com.photowey.http.rpc.client.binding.UrlTemplate;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.core.annotation.HttpGet;
+import com.photowey.http.rpc.core.model.RemoteInfo;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UrlTemplateBenchmark
+ * <p>
+ * the compiled {@link UrlTemplate} against the regex {@code replaceAll} substitution it replaced,
+ * the arguments need no percent-encoding, so both paths render the same url
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlTemplateBenchmark {
+
+    private static final String TEMPLATE = "/api/v1/user/{userId}/order/{orderId}?uname={uname}&status={status}";
+
+    private final Object[] args = new Object[]{10086L, "20200912", "photowey", 1, 2, 20};
+
+    private MethodSignature signature;
+    private UrlTemplate urlTemplate;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Method method = OrderApi.class.getMethod("order", Long.class, String.class, String.class, Integer.class, Integer.class, Integer.class);
+        this.signature = new MethodSignature(method,
+                new RequestCommand(method, new RemoteInfo("http", "localhost:8080", TEMPLATE)));
+        this.signature.getPathVariable().put("userId", 0);
+        this.signature.getPathVariable().put("orderId", 1);
+        this.signature.getQueries().put("uname", 2);
+        this.signature.getQueries().put("status", 3);
+        this.signature.getNoAliasParamIndex().put("page", 4);
+        this.signature.getNoAliasParamIndex().put("size", 5);
+        this.urlTemplate = this.signature.compile(new JsonCodec(new ObjectMapper())).getUrlTemplate();
+
+        if (!this.urlTemplate.render(this.args).equals(this.replaceAll())) {
+            throw new IllegalStateException("the rendered urls are not the same");
+        }
+    }
+
+    @Benchmark
+    public String urlTemplate() {
+        return this.urlTemplate.render(this.args);
+    }
+
+    /**
+     * the former AbstractHttpHandler#handleQuery and AbstractHttpHandler#handlePath
+     */
+    @Benchmark
+    public String replaceAll() {
+        String url = TEMPLATE;
+        for (Map.Entry<String, Integer> entry : this.signature.getQueries().entrySet()) {
+            url = url.replaceAll("\\{" + entry.getKey() + "}", String.valueOf(this.args[entry.getValue()]));
+        }
+        StringBuilder builder = new StringBuilder(url);
+        for (Map.Entry<String, Integer> entry : this.signature.getNoAliasParamIndex().entrySet()) {
+            HRpcUtils.populateQuery(builder, entry.getKey(), String.valueOf(this.args[entry.getValue()]));
+        }
+        url = builder.toString();
+        for (Map.Entry<String, Integer> entry : this.signature.getPathVariable().entrySet()) {
+            url = url.replaceAll("\\{" + entry.getKey() + "}", String.valueOf(this.args[entry.getValue()]));
+        }
+
+        return url;
+    }
+
+    public interface OrderApi {
+
+        @HttpGet(uri = TEMPLATE)
+        String order(Long userId, String orderId, String uname, Integer status, Integer page, Integer size);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.jdk;
+
+import com.photowey.http.rpc.client.config.HRpcConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDK HttpClient Configurer
+ * <p>
+ * picked up by the {@link com.photowey.http.rpc.client.config.HRpcConfigurer} component scan once the module is on the classpath
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@Configuration
+public class JdkHttpClientConfigurer {
+
+    /**
+     * custom define the JdkHttpClientRequestExecutor If necessary for Sub-Class
+     *
+     * @param hrpcConfiguration {@link HRpcConfiguration}
+     * @return {@link IJdkHttpClientRequestExecutor}
+     */
+    @Bean
+    @ConditionalOnMissingBean(IJdkHttpClientRequestExecutor.class)
+    public IJdkHttpClientRequestExecutor jdkHttpClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
+        return new JdkHttpClientRequestExecutor(hrpcConfiguration);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.jdk;
+
+import com.photowey.http.rpc.client.annotation.RequestExecutorMarker;
+import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
+import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.RequestCommand;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.config.HRpcConfiguration;
+import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.core.enums.ExecutorEnum;
+import com.photowey.http.rpc.core.exception.HRpcException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * JDK HttpClient RequestExecutor
+ * <p>
+ * a single shared {@link HttpClient} of the JDK 11+, the HTTP/2 is preferred,
+ * so the concurrent calls to the same host are multiplexed as the streams over one connection,
+ * and falls back to the HTTP/1.1 if the server does not support it
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@RequestExecutorMarker(value = ExecutorEnum.JDK_HTTP_CLIENT)
+public class JdkHttpClientRequestExecutor implements IJdkHttpClientRequestExecutor {
+
+    protected static final Logger log = LoggerFactory.getLogger(JdkHttpClientRequestExecutor.class);
+
+    /**
+     * the headers managed by the {@link HttpClient}, set them throws the IllegalArgumentException
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.add("Connection");
+        RESTRICTED_HEADERS.add("Content-Length");
+        RESTRICTED_HEADERS.add("Expect");
+        RESTRICTED_HEADERS.add("Host");
+        RESTRICTED_HEADERS.add("Upgrade");
+    }
+
+    protected final HRpcConfiguration hrpcConfiguration;
+
+    protected final HttpClient httpClient;
+
+    public JdkHttpClientRequestExecutor(HRpcConfiguration hrpcConfiguration) {
+        this.hrpcConfiguration = hrpcConfiguration;
+        HttpClient.Builder builder = this.populateHttpClient(hrpcConfiguration.getHRpcClientProperties());
+        if (null != hrpcConfiguration.getVirtualThreadExecutor()) {
+            // the internal tasks of the client run on the virtual threads, in the virtual-threads mode
+            builder.executor(hrpcConfiguration.getVirtualThreadExecutor());
+        }
+
+        // hook
+        this.preBuildClient(builder);
+
+        this.httpClient = builder.build();
+    }
+
+    public HttpClient.Builder populateHttpClient(HRpcClientProperties properties) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(properties.getConnectTimeout()))
+                .sslContext(this.createIgnoreVerifySSL());
+    }
+
+    /**
+     * the hook of the Sub-Class before the client built, such as: the proxy, the authenticator
+     *
+     * @param builder {@link HttpClient.Builder}
+     */
+    protected void preBuildClient(HttpClient.Builder builder) {
+
+    }
+
+    @Override
+    public <T> T execute(ClientMethod method, ClientRequest clientRequest) throws HRpcException, IOException {
+        HttpRequest request = this.buildRequest(method, clientRequest);
+        try {
+            HttpResponse<InputStream> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            // close the stream, the connection is kept for the other streams
+            try (InputStream content = response.body()) {
+                return this.handleResponse(method, clientRequest, response.statusCode(), content);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HRpcException("handle the remote invoke with JDK http client interrupted", e);
+        }
+    }
+
+    /**
+     * the native {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)}, no thread is blocked during the I/O,
+     * the body is received as the bytes, and decoded on the async executor
+     */
+    @Override
+    public <T> CompletableFuture<T> executeAsync(ClientMethod method, ClientRequest clientRequest) {
+        HttpRequest request = this.buildRequest(method, clientRequest);
+
+        return this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handleAsync((response, e) -> {
+                    if (null != e) {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        throw new HRpcException("http executor invoke remote:[{}] exception", cause, method.getCommand().getMethodName());
+                    }
+
+                    return this.handleResponse(method, clientRequest, response.statusCode(), response.body());
+                }, this.hrpcConfiguration.getAsyncExecutor());
+    }
+
+    /**
+     * build the JDK request
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @return {@link HttpRequest}
+     */
+    protected HttpRequest buildRequest(ClientMethod method, ClientRequest clientRequest) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+        RequestMethod requestMethod = command.getRequestMethod();
+        HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+
+        // the url is encoded by the url template already
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(clientRequest.getUrl()))
+                .timeout(Duration.ofSeconds(properties.getReadTimeout()));
+        this.populateHeaders(builder, clientRequest.getHeaderValues());
+
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        Object requestBody = clientRequest.getRequestBody();
+        if (!RequestMethod.GET.equals(requestMethod) && HRpcUtils.isNotEmpty(requestBody)) {
+            builder.header(CONTENT_TYPE, CONTENT_TYPE_JSON);
+            // serialized once into the pooled buffer of the codec, with the known content length
+            byte[] bytes = this.hrpcConfiguration.getJsonCodec().encodeToBytes(methodSignature.getBodyWriter(), requestBody);
+            body = HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+
+        return builder.method(requestMethod.name(), body).build();
+    }
+
+    public void populateHeaders(HttpRequest.Builder builder, Map<String, String> headers) {
+        if (null == headers) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (RESTRICTED_HEADERS.contains(entry.getKey())) {
+                if (log.isDebugEnabled()) {
+                    log.debug("jdk-httpclient:: ignore the restricted header:[{}]", entry.getKey());
+                }
+                continue;
+            }
+            builder.header(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private <T> T handleResponse(ClientMethod method, ClientRequest clientRequest, int status, Object content) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+        String url = clientRequest.getUrl();
+        if (REQUEST_OK != status) {
+            throw new HttpStatusException(status, "execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, status);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("jdk-httpclient:: the method:[{}]return type is:[{}]", command.getMethodName(), methodSignature.getReturnType().getSimpleName());
+        }
+        if (methodSignature.isVoidResponse()) {
+            return null;
+        }
+
+        JsonCodec jsonCodec = this.hrpcConfiguration.getJsonCodec();
+        HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+        Object body;
+        if (content instanceof byte[]) {
+            byte[] bytes = (byte[]) content;
+            if (properties.isLogBody() && log.isDebugEnabled()) {
+                log.debug("the jdk-httpclient url:[{}] response is:[{}]", url, new String(bytes, 0, Math.min(bytes.length, properties.getLogBodyMaxSize()), StandardCharsets.UTF_8));
+            }
+            body = jsonCodec.decode(methodSignature.getResponseReader(), bytes);
+        } else {
+            InputStream in = (InputStream) content;
+            if (properties.isLogBody() && log.isDebugEnabled()) {
+                in = new BufferedInputStream(in);
+                log.debug("the jdk-httpclient url:[{}] response is:[{}]", url, this.peekBody(in, properties.getLogBodyMaxSize()));
+            }
+            // decode from the stream directly
+            body = jsonCodec.decode(methodSignature.getResponseReader(), in);
+        }
+
+        // handle The ResponseEntity and Optional
+        return (T) methodSignature.toResponse(body, status);
+    }
+
+    private String peekBody(InputStream in, int maxSize) {
+        try {
+            in.mark(maxSize);
+            byte[] buffer = in.readNBytes(maxSize);
+            in.reset();
+
+            return new String(buffer, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    // ======================================================================= SSL
+
+    /**
+     * Ignore ssl verify, the same as the other executors
+     *
+     * @return {@link SSLContext}
+     */
+    protected SSLContext createIgnoreVerifySSL() {
+        try {
+            TrustManager[] tm = {this.hrpcConfiguration.getTrustManager()};
+            SSLContext sslContext = SSLContext.getInstance(HTTPS_TLS);
+            sslContext.init(null, tm, new SecureRandom());
+
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new HRpcException("create the JDK http client ssl context exception", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.netty;
+
+import com.photowey.http.rpc.client.properties.NettyProperties;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the per-host channel pools, the keep-alive channels are reused by the sequential exchanges
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class NettyChannelPools implements Closeable {
+
+    private static final AttributeKey<FixedChannelPool> POOL = AttributeKey.valueOf("hrpc.pool");
+
+    private static final String HTTPS = "https";
+
+    private final Bootstrap bootstrap;
+    private final SSLContext sslContext;
+    private final NettyProperties properties;
+    private final long acquireTimeoutMillis;
+
+    private final Map<String, FixedChannelPool> pools = new ConcurrentHashMap<>();
+
+    public NettyChannelPools(Bootstrap bootstrap, SSLContext sslContext, NettyProperties properties, long acquireTimeoutMillis) {
+        this.bootstrap = bootstrap;
+        this.sslContext = sslContext;
+        this.properties = properties;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public static String determineKey(String scheme, String host, int port) {
+        return scheme + "://" + host + ":" + port;
+    }
+
+    /**
+     * determine the pool of the host, only once for each key
+     *
+     * @param scheme the request scheme
+     * @param host   the request host
+     * @param port   the request port
+     * @return {@link FixedChannelPool}
+     */
+    public FixedChannelPool determinePool(String scheme, String host, int port) {
+        return this.pools.computeIfAbsent(determineKey(scheme, host, port), key -> this.createPool(scheme, host, port));
+    }
+
+    private FixedChannelPool createPool(String scheme, String host, int port) {
+        Bootstrap target = this.bootstrap.clone().remoteAddress(InetSocketAddress.createUnresolved(host, port));
+        boolean ssl = HTTPS.equalsIgnoreCase(scheme);
+
+        AbstractChannelPoolHandler handler = new AbstractChannelPoolHandler() {
+            @Override
+            public void channelCreated(Channel channel) {
+                ChannelPipeline pipeline = channel.pipeline();
+                if (ssl) {
+                    SSLEngine engine = sslContext.createSSLEngine(host, port);
+                    engine.setUseClientMode(true);
+                    pipeline.addLast(new SslHandler(engine));
+                }
+                pipeline.addLast(new HttpClientCodec());
+                pipeline.addLast(new HttpContentDecompressor());
+                pipeline.addLast(new HttpObjectAggregator(properties.getMaxContentLength()));
+                pipeline.addLast(new NettyResponseHandler(NettyChannelPools.this));
+            }
+        };
+
+        // wait for the free channel at most the acquire timeout, when the pool is exhausted
+        FixedChannelPool pool = new FixedChannelPool(target, handler, ChannelHealthChecker.ACTIVE,
+                FixedChannelPool.AcquireTimeoutAction.FAIL, this.acquireTimeoutMillis,
+                this.properties.getMaxConnectionsPerHost(), this.properties.getMaxPendingAcquires());
+
+        return pool;
+    }
+
+    /**
+     * bind the channel to the pool, so the response handler could release it
+     *
+     * @param channel the acquired channel
+     * @param pool    the pool
+     */
+    void bind(Channel channel, FixedChannelPool pool) {
+        channel.attr(POOL).set(pool);
+    }
+
+    /**
+     * release the channel to the pool, the closed channel is dropped by the health checker
+     *
+     * @param channel the channel
+     */
+    void release(Channel channel) {
+        FixedChannelPool pool = channel.attr(POOL).getAndSet(null);
+        if (null != pool) {
+            pool.release(channel);
+        }
+    }
+
+    /**
+     * fail the in-flight exchange of the channel only once, then close the channel,
+     * it's released from the close future, so the pool drops it rather than hands it to a pending acquirer
+     *
+     * @param channel the channel
+     * @param cause   the cause
+     */
+    void abort(Channel channel, Throwable cause) {
+        CompletableFuture<FullHttpResponse> exchange = channel.attr(NettyResponseHandler.EXCHANGE).getAndSet(null);
+        if (null != exchange) {
+            exchange.completeExceptionally(cause instanceof IOException ? cause : new IOException(cause));
+        }
+        channel.close().addListener(closed -> this.release(channel));
+    }
+
+    @Override
+    public void close() {
+        this.pools.values().forEach(FixedChannelPool::close);
+        this.pools.clear();
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.netty;
+
+import com.photowey.http.rpc.client.annotation.RequestExecutorMarker;
+import com.photowey.http.rpc.client.binding.ClientMethod;
+import com.photowey.http.rpc.client.binding.ClientRequest;
+import com.photowey.http.rpc.client.binding.MethodSignature;
+import com.photowey.http.rpc.client.binding.RequestCommand;
+import com.photowey.http.rpc.client.codec.JsonCodec;
+import com.photowey.http.rpc.client.config.HRpcConfiguration;
+import com.photowey.http.rpc.client.properties.HRpcClientProperties;
+import com.photowey.http.rpc.client.properties.NettyProperties;
+import com.photowey.http.rpc.core.enums.ExecutorEnum;
+import com.photowey.http.rpc.core.exception.HRpcException;
+import com.photowey.http.rpc.core.exception.HttpStatusException;
+import com.photowey.http.rpc.core.util.HRpcUtils;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty RequestExecutor
+ * <p>
+ * the exchanges run on the shared event loops, no thread is blocked per in-flight call,
+ * the HTTP/1.1 keep-alive channels are pooled per host,
+ * the request body is serialized into the pooled buffer and written without the intermediate copies
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+@RequestExecutorMarker(value = ExecutorEnum.NETTY)
+public class NettyRequestExecutor implements INettyRequestExecutor, DisposableBean {
+
+    protected static final Logger log = LoggerFactory.getLogger(NettyRequestExecutor.class);
+
+    private static final int HTTP_PORT = 80;
+    private static final int HTTPS_PORT = 443;
+
+    protected final HRpcConfiguration hrpcConfiguration;
+
+    protected final EventLoopGroup eventLoopGroup;
+
+    protected final NettyChannelPools channelPools;
+
+    public NettyRequestExecutor(HRpcConfiguration hrpcConfiguration) {
+        this.hrpcConfiguration = hrpcConfiguration;
+        HRpcClientProperties properties = hrpcConfiguration.getHRpcClientProperties();
+        NettyProperties netty = properties.getNetty();
+
+        this.eventLoopGroup = new NioEventLoopGroup(netty.getIoThreads(), new DefaultThreadFactory("hrpc-netty", true));
+        Bootstrap bootstrap = this.populateBootstrap(properties);
+
+        // hook
+        this.preBuildBootstrap(bootstrap);
+
+        this.channelPools = new NettyChannelPools(bootstrap, this.createIgnoreVerifySSL(), netty,
+                TimeUnit.SECONDS.toMillis(properties.getConnectTimeout()));
+    }
+
+    public Bootstrap populateBootstrap(HRpcClientProperties properties) {
+        return new Bootstrap()
+                .group(this.eventLoopGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) TimeUnit.SECONDS.toMillis(properties.getConnectTimeout()));
+    }
+
+    /**
+     * the hook of the Sub-Class before the pools created, such as: the socket buffers
+     *
+     * @param bootstrap {@link Bootstrap}
+     */
+    protected void preBuildBootstrap(Bootstrap bootstrap) {
+
+    }
+
+    @Override
+    public <T> T execute(ClientMethod method, ClientRequest clientRequest) throws HRpcException, IOException {
+        CompletableFuture<FullHttpResponse> exchange = this.exchange(method, clientRequest);
+        FullHttpResponse response;
+        try {
+            response = exchange.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the response may still arrive
+            exchange.thenAccept(ReferenceCountUtil::release);
+            throw new HRpcException("handle the remote invoke with Netty interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new HRpcException("handle the remote invoke with Netty exception", e.getCause());
+        }
+
+        return this.handleResponse(method, clientRequest, response);
+    }
+
+    /**
+     * the response is decoded on the async executor, the event loops are never blocked by the decoding
+     */
+    @Override
+    public <T> CompletableFuture<T> executeAsync(ClientMethod method, ClientRequest clientRequest) {
+        return this.exchange(method, clientRequest)
+                .handleAsync((response, e) -> {
+                    if (null != e) {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        throw new HRpcException("http executor invoke remote:[{}] exception", cause, method.getCommand().getMethodName());
+                    }
+
+                    return this.handleResponse(method, clientRequest, response);
+                }, this.hrpcConfiguration.getAsyncExecutor());
+    }
+
+    /**
+     * acquire the pooled channel of the host, write the request, and complete with the aggregated response
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @return the future of the retained {@link FullHttpResponse}, the caller releases it
+     */
+    protected CompletableFuture<FullHttpResponse> exchange(ClientMethod method, ClientRequest clientRequest) {
+        URI uri = URI.create(clientRequest.getUrl());
+        String scheme = uri.getScheme();
+        int port = this.determinePort(uri);
+
+        FullHttpRequest request = this.buildRequest(method, clientRequest, uri, port);
+        FixedChannelPool pool = this.channelPools.determinePool(scheme, uri.getHost(), port);
+        long readTimeout = this.hrpcConfiguration.getHRpcClientProperties().getReadTimeout();
+
+        CompletableFuture<FullHttpResponse> exchange = new CompletableFuture<>();
+        pool.acquire().addListener((Future<Channel> acquired) -> {
+            if (!acquired.isSuccess()) {
+                request.release();
+                exchange.completeExceptionally(acquired.cause());
+                return;
+            }
+
+            Channel channel = acquired.getNow();
+            this.channelPools.bind(channel, pool);
+            channel.attr(NettyResponseHandler.EXCHANGE).set(exchange);
+
+            ScheduledFuture<?> timeout = channel.eventLoop().schedule(
+                    () -> this.channelPools.abort(channel, new SocketTimeoutException("read timed out")), readTimeout, TimeUnit.SECONDS);
+            exchange.whenComplete((response, e) -> timeout.cancel(false));
+
+            channel.writeAndFlush(request).addListener(written -> {
+                if (!written.isSuccess()) {
+                    this.channelPools.abort(channel, written.cause());
+                }
+            });
+        });
+
+        return exchange;
+    }
+
+    private int determinePort(URI uri) {
+        if (uri.getPort() > 0) {
+            return uri.getPort();
+        }
+
+        return HTTPS.equalsIgnoreCase(uri.getScheme()) ? HTTPS_PORT : HTTP_PORT;
+    }
+
+    /**
+     * build the request, the body is serialized into the pooled buffer
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param uri           the request uri, encoded by the url template already
+     * @param port          the request port
+     * @return {@link FullHttpRequest}
+     */
+    protected FullHttpRequest buildRequest(ClientMethod method, ClientRequest clientRequest, URI uri, int port) {
+        RequestMethod requestMethod = method.getCommand().getRequestMethod();
+        String path = HRpcUtils.isNotEmpty(uri.getRawPath()) ? uri.getRawPath() : "/";
+        if (null != uri.getRawQuery()) {
+            path = path + "?" + uri.getRawQuery();
+        }
+
+        ByteBuf content = Unpooled.EMPTY_BUFFER;
+        Object requestBody = clientRequest.getRequestBody();
+        boolean hasBody = !RequestMethod.GET.equals(requestMethod) && HRpcUtils.isNotEmpty(requestBody);
+        if (hasBody) {
+            content = this.encode(method.getMethod(), requestBody);
+        }
+
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(requestMethod.name()), path, content);
+        HttpHeaders headers = request.headers();
+        this.populateHeaders(headers, clientRequest.getHeaderValues());
+        boolean defaultPort = port == HTTP_PORT || port == HTTPS_PORT;
+        headers.set(HttpHeaderNames.HOST, defaultPort ? uri.getHost() : uri.getHost() + ":" + port);
+        headers.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        headers.set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP);
+        headers.set(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        if (hasBody) {
+            headers.set(HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE_JSON);
+        }
+
+        return request;
+    }
+
+    private ByteBuf encode(MethodSignature methodSignature, Object requestBody) {
+        ByteBuf content = PooledByteBufAllocator.DEFAULT.buffer();
+        try (ByteBufOutputStream out = new ByteBufOutputStream(content)) {
+            this.hrpcConfiguration.getJsonCodec().encode(methodSignature.getBodyWriter(), requestBody, out);
+            return content;
+        } catch (IOException | RuntimeException e) {
+            content.release();
+            throw new HRpcException("handle the Bean to json buffer exception", e);
+        }
+    }
+
+    public void populateHeaders(HttpHeaders headers, Map<String, String> headerValues) {
+        if (null != headerValues) {
+            for (Map.Entry<String, String> entry : headerValues.entrySet()) {
+                headers.set(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * decode the response, and release it
+     *
+     * @param method        HPpc Client-Method-Object
+     * @param clientRequest the per-call request state
+     * @param response      the retained {@link FullHttpResponse}
+     * @param <T>
+     * @return T Type
+     */
+    protected <T> T handleResponse(ClientMethod method, ClientRequest clientRequest, FullHttpResponse response) {
+        RequestCommand command = method.getCommand();
+        MethodSignature methodSignature = method.getMethod();
+        String url = clientRequest.getUrl();
+        try {
+            int status = response.status().code();
+            if (REQUEST_OK != status) {
+                throw new HttpStatusException(status, "execute the method:[{}], url:[{}] exception, status:[{}]", command.getMethodName(), url, status);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("netty:: the method:[{}]return type is:[{}]", command.getMethodName(), methodSignature.getReturnType().getSimpleName());
+            }
+            if (methodSignature.isVoidResponse()) {
+                return null;
+            }
+            ByteBuf content = response.content();
+            HRpcClientProperties properties = this.hrpcConfiguration.getHRpcClientProperties();
+            if (properties.isLogBody() && log.isDebugEnabled()) {
+                int length = Math.min(content.readableBytes(), properties.getLogBodyMaxSize());
+                log.debug("the netty url:[{}] response is:[{}]", url, content.toString(content.readerIndex(), length, StandardCharsets.UTF_8));
+            }
+            JsonCodec jsonCodec = this.hrpcConfiguration.getJsonCodec();
+            // decode from the buffer directly
+            Object body;
+            try (InputStream in = new ByteBufInputStream(content)) {
+                body = jsonCodec.decode(methodSignature.getResponseReader(), in);
+            }
+            // handle The ResponseEntity and Optional
+            return (T) methodSignature.toResponse(body, status);
+        } catch (IOException e) {
+            throw new HRpcException("read the netty response exception", e);
+        } finally {
+            response.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.channelPools.close();
+        this.eventLoopGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    }
+
+    // ======================================================================= SSL
+
+    /**
+     * Ignore ssl verify, the same as the other executors
+     *
+     * @return {@link SSLContext}
+     */
+    protected SSLContext createIgnoreVerifySSL() {
+        try {
+            TrustManager[] tm = {this.hrpcConfiguration.getTrustManager()};
+            SSLContext sslContext = SSLContext.getInstance(HTTPS_TLS);
+            sslContext.init(null, tm, new SecureRandom());
+
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new HRpcException("create the Netty ssl context exception", e);
+        }
+    }
+}
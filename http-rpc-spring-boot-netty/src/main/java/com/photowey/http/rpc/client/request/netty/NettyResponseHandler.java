@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.util.AttributeKey;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * the last handler of the pooled channel, complete the in-flight exchange of the channel
+ * <p>
+ * the HTTP/1.1 channel carries one exchange at a time, it is released to the pool once the response arrived
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class NettyResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+    /**
+     * the in-flight exchange of the channel
+     */
+    static final AttributeKey<CompletableFuture<FullHttpResponse>> EXCHANGE = AttributeKey.valueOf("hrpc.exchange");
+
+    private final NettyChannelPools pools;
+
+    public NettyResponseHandler(NettyChannelPools pools) {
+        // the response is retained for the exchange, released after decoded
+        super(false);
+        this.pools = pools;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+        Channel channel = ctx.channel();
+        CompletableFuture<FullHttpResponse> exchange = channel.attr(EXCHANGE).getAndSet(null);
+        if (!HttpUtil.isKeepAlive(response)) {
+            channel.close();
+        }
+        this.pools.release(channel);
+        if (null == exchange || !exchange.complete(response)) {
+            response.release();
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        this.pools.abort(ctx.channel(), new ClosedChannelException());
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        this.pools.abort(ctx.channel(), cause);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.client.request.netty;
+
+import com.photowey.http.rpc.client.properties.NettyProperties;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * NettyChannelPoolsTest
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+class NettyChannelPoolsTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+
+    private EventLoopGroup eventLoopGroup;
+    private NettyChannelPools pools;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // accepts the connections, and never responds
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!this.server.isClosed()) {
+                try {
+                    this.accepted.add(this.server.accept());
+                } catch (IOException ignored) {
+                    // closed
+                }
+            }
+        }, "silent-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        this.eventLoopGroup = new NioEventLoopGroup(1);
+        NettyProperties properties = new NettyProperties();
+        properties.setMaxConnectionsPerHost(1);
+        Bootstrap bootstrap = new Bootstrap().group(this.eventLoopGroup).channel(NioSocketChannel.class);
+        this.pools = new NettyChannelPools(bootstrap, null, properties, TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.pools.close();
+        this.eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        this.server.close();
+        for (Socket socket : this.accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void shouldNotHandTheAbortedChannelToThePendingAcquirer() throws Exception {
+        FixedChannelPool pool = this.pools.determinePool("http", "127.0.0.1", this.server.getLocalPort());
+        Channel aborted = pool.acquire().get(5, TimeUnit.SECONDS);
+        this.pools.bind(aborted, pool);
+        CompletableFuture<FullHttpResponse> exchange = new CompletableFuture<>();
+        aborted.attr(NettyResponseHandler.EXCHANGE).set(exchange);
+
+        // the pool is exhausted, the next acquirer waits for the aborted channel's slot
+        Future<Channel> pending = pool.acquire();
+        assertFalse(pending.isDone());
+
+        // aborted on the event loop, as the read timeout and the write failure do
+        aborted.eventLoop().execute(() -> this.pools.abort(aborted, new SocketTimeoutException("read timed out")));
+
+        Channel next = pending.get(5, TimeUnit.SECONDS);
+        assertNotSame(aborted, next);
+        assertTrue(next.isActive());
+        assertFalse(aborted.isOpen());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> exchange.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof SocketTimeoutException);
+    }
+
+    @Test
+    void shouldCloseAndReleaseTheChannelOnlyOnce() throws Exception {
+        FixedChannelPool pool = this.pools.determinePool("http", "127.0.0.1", this.server.getLocalPort());
+        Channel aborted = pool.acquire().get(5, TimeUnit.SECONDS);
+        this.pools.bind(aborted, pool);
+        aborted.attr(NettyResponseHandler.EXCHANGE).set(new CompletableFuture<>());
+
+        // the abort of the timeout, then the abort of the inactive channel
+        this.pools.abort(aborted, new SocketTimeoutException("read timed out"));
+        this.pools.abort(aborted, new IOException("closed"));
+        aborted.closeFuture().get(5, TimeUnit.SECONDS);
+
+        // a double release would fail the pool with the IllegalStateException, and let a second channel in
+        Channel next = pool.acquire().get(5, TimeUnit.SECONDS);
+        assertTrue(next.isActive());
+        assertFalse(pool.acquire().await(200, TimeUnit.MILLISECONDS));
+    }
+}
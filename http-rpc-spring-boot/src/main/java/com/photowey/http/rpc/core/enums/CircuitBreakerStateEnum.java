@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.core.enums;
+
+/**
+ * The state of the route circuit breaker
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public enum CircuitBreakerStateEnum {
+    /**
+     * CLOSED, the calls are permitted, and the outcomes are recorded in the sliding window
+     */
+    CLOSED,
+    /**
+     * OPEN, the calls fail fast, until the wait duration elapsed
+     */
+    OPEN,
+    /**
+     * HALF_OPEN, a limited number of the trial calls are permitted, to decide close or open again
+     */
+    HALF_OPEN;
+}
@@ -45,6 +45,18 @@ public enum ClusterStrategyEnum {
      * using a ip-hash algorithm
      */
     HASH("HASH", 5),
+    /**
+     * using a least-active algorithm, select the route with the fewest in-flight calls
+     *
+     * @since 1.1.0
+     */
+    LEAST_ACTIVE("LEAST_ACTIVE", 7),
+    /**
+     * using a power-of-two-choices algorithm, compare the peak-EWMA latency and the in-flight calls of two random routes
+     *
+     * @since 1.1.0
+     */
+    P2C_EWMA("P2C_EWMA", 8),
     /**
      * TODO
      * using a custom algorithm
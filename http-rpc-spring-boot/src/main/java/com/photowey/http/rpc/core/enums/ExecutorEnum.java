@@ -30,5 +30,23 @@ public enum ExecutorEnum {
     /**
      * OK_HTTP
      */
-    OK_HTTP;
+    OK_HTTP,
+    /**
+     * WEB_CLIENT, the non-blocking executor of the Mono<T> and Flux<T> methods
+     *
+     * @since 1.1.0
+     */
+    WEB_CLIENT,
+    /**
+     * JDK_HTTP_CLIENT, the java.net.http.HttpClient of the JDK 11+
+     *
+     * @since 1.1.0
+     */
+    JDK_HTTP_CLIENT,
+    /**
+     * NETTY, the pooled channels on the Netty event loops
+     *
+     * @since 1.1.0
+     */
+    NETTY;
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.core.exception;
+
+import com.photowey.http.rpc.core.enums.HRpcStatus;
+import com.photowey.http.rpc.core.util.StringFormatUtils;
+
+/**
+ * CircuitBreakerOpenException
+ * <p>
+ * the call is not permitted, because the circuit breaker of the route is open,
+ * the call fail fast, so the stack trace is not filled
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class CircuitBreakerOpenException extends HRpcException {
+
+    private static final long serialVersionUID = 787402160615669812L;
+
+    public CircuitBreakerOpenException(String message) {
+        super(HRpcStatus.NO_AVAILABLE.toValue(), message, null, false, false);
+    }
+
+    public CircuitBreakerOpenException(String message, Object... params) {
+        this(StringFormatUtils.format(message, params));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2020 photowey (photowey@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.photowey.http.rpc.core.exception;
+
+import com.photowey.http.rpc.core.util.StringFormatUtils;
+
+/**
+ * HttpStatusException
+ * <p>
+ * the remote responded with an unexpected http status, the status is kept,
+ * so the callers can tell the server errors from the client errors
+ *
+ * @author WcJun
+ * @date 2020/09/12
+ * @since 1.1.0
+ */
+public class HttpStatusException extends HRpcException {
+
+    private static final long serialVersionUID = -5106405581924618722L;
+
+    /**
+     * the http status of the response
+     */
+    private final int httpStatus;
+
+    public HttpStatusException(int httpStatus, String message) {
+        super(message);
+        this.httpStatus = httpStatus;
+    }
+
+    public HttpStatusException(int httpStatus, String message, Object... params) {
+        this(httpStatus, StringFormatUtils.format(message, params));
+    }
+
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * the response status is a server error or not
+     *
+     * @return true if the status is 5xx
+     */
+    public boolean isServerError() {
+        return this.httpStatus >= 500 && this.httpStatus < 600;
+    }
+}
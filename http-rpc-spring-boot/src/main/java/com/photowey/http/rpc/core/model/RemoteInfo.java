@@ -16,6 +16,7 @@
 package com.photowey.http.rpc.core.model;
 
 import com.photowey.http.rpc.core.constant.HRpcConstants;
+import com.photowey.http.rpc.core.enums.HostTypeEnum;
 import com.photowey.http.rpc.core.util.StringFormatUtils;
 
 import java.io.Serializable;
@@ -31,6 +32,14 @@ public class RemoteInfo implements Serializable {
     private String protocol;
     private String host;
     private String uri;
+    /**
+     * the host type
+     * the {@link #host} is the fallback host, if the type is {@link HostTypeEnum#DYNAMIC},
+     * the real host will be selected from the service routes per invocation
+     *
+     * @since 1.1.0
+     */
+    private HostTypeEnum hostType = HostTypeEnum.STATIC;
 
     public RemoteInfo() {
     }
@@ -41,6 +50,11 @@ public class RemoteInfo implements Serializable {
         this.uri = uri;
     }
 
+    public RemoteInfo(String protocol, String host, String uri, HostTypeEnum hostType) {
+        this(protocol, host, uri);
+        this.hostType = hostType;
+    }
+
     public String getProtocol() {
         return protocol;
     }
@@ -65,6 +79,14 @@ public class RemoteInfo implements Serializable {
         this.uri = uri;
     }
 
+    public HostTypeEnum getHostType() {
+        return hostType;
+    }
+
+    public void setHostType(HostTypeEnum hostType) {
+        this.hostType = hostType;
+    }
+
     /**
      * Build URI
      *
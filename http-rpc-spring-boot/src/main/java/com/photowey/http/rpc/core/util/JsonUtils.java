@@ -15,8 +15,8 @@
  */
 package com.photowey.http.rpc.core.util;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -67,9 +67,9 @@ public class JsonUtils {
         Assert.notNull(type, "the target type can't be null");
         Assert.notNull(objectMapper, "the target ObjectMapper can't be null");
         try {
-            List<T> beans = objectMapper.readValue(json, new TypeReference<List<T>>() {
-            });
-            return beans;
+            // the TypeReference<List<T>> is erased to List<Object>, construct the element type explicitly
+            JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+            return objectMapper.readValue(json, listType);
         } catch (Exception e) {
             throw new HRpcException("parse the json Str to Beans exception", e);
         }
@@ -101,7 +101,8 @@ public class JsonUtils {
 
     private static ObjectMapper defaultJsonMapper(PropertyNamingStrategy strategy) {
         ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        // keep the wire format compact
+        objectMapper.disable(SerializationFeature.INDENT_OUTPUT);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         if (HRpcUtils.isNotEmpty(strategy)) {
             objectMapper.setPropertyNamingStrategy(strategy);
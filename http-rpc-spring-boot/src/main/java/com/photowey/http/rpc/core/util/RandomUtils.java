@@ -15,7 +15,7 @@
  */
 package com.photowey.http.rpc.core.util;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * RandomUtils
@@ -26,16 +26,21 @@ import java.util.Random;
  */
 public final class RandomUtils {
 
-    private static final Random RANDOM = new Random();
-
     private RandomUtils() {
         throw new AssertionError("No " + getClass().getName() + " instances for you!");
     }
 
+    /**
+     * the random int in [startInclusive, endExclusive), by the {@link ThreadLocalRandom}, no contention between the threads
+     *
+     * @param startInclusive the start, inclusive
+     * @param endExclusive   the end, exclusive
+     * @return the random int
+     */
     public static int nextInt(int startInclusive, int endExclusive) {
         if (startInclusive < 0 || startInclusive > endExclusive) {
             throw new IllegalArgumentException("");
         }
-        return startInclusive == endExclusive ? startInclusive : startInclusive + RANDOM.nextInt(endExclusive - startInclusive);
+        return startInclusive == endExclusive ? startInclusive : ThreadLocalRandom.current().nextInt(startInclusive, endExclusive);
     }
 }